@@ -2,7 +2,10 @@ package seedu.tripbuddy;
 
 import seedu.tripbuddy.exception.DataLoadingException;
 import seedu.tripbuddy.exception.ExceptionHandler;
+import seedu.tripbuddy.exception.InvalidArgumentException;
+import seedu.tripbuddy.framework.AsyncLogHandler;
 import seedu.tripbuddy.framework.InputHandler;
+import seedu.tripbuddy.framework.ScriptRunner;
 import seedu.tripbuddy.framework.ExpenseManager;
 import seedu.tripbuddy.framework.Ui;
 import seedu.tripbuddy.storage.DataHandler;
@@ -10,6 +13,8 @@ import seedu.tripbuddy.storage.DataHandler;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
@@ -21,8 +26,23 @@ public class TripBuddy {
 
     private static final String LOG_PATH = "log.txt";
     private static final String FILE_PATH = "tripbuddy_data.json";
+    /** System property holding the log level, e.g. {@code -Dtripbuddy.log.level=FINE}. */
+    private static final String LOG_LEVEL_PROPERTY = "tripbuddy.log.level";
+    /** System property holding what to do when the log queue is full, either {@code DROP} or {@code BLOCK}. */
+    private static final String LOG_POLICY_PROPERTY = "tripbuddy.log.policy";
+    private static final int LOG_QUEUE_CAPACITY = 1024;
+    /** System property which, when {@code false}, saves data without indentation. */
+    private static final String SAVE_PRETTY_PROPERTY = "tripbuddy.save.pretty";
+    /** System property holding the number of previous saves to keep next to the save file. */
+    private static final String SAVE_GENERATIONS_PROPERTY = "tripbuddy.save.generations";
+    /** System property which, when {@code false}, skips forcing saves to disk. */
+    private static final String SAVE_SYNC_PROPERTY = "tripbuddy.save.sync";
+    private static final String USAGE = "Usage: java -jar tripbuddy.jar [--script FILE [--quiet]]";
+    /** Exit status for command-line arguments that cannot be parsed. */
+    private static final int USAGE_EXIT_STATUS = 2;
 
     private static Logger logger;
+    private static Handler logHandler;
     private static Ui ui;
     private static final ExpenseManager expenseManager = ExpenseManager.getInstance();
     private static DataHandler dataHandler;
@@ -30,29 +50,61 @@ public class TripBuddy {
 
     /**
      * Initializes logging to a file called log.txt.
-     * Logs are written using a simple formatter.
+     * Logs are written using a simple formatter by a background thread, so logging never waits for the file.
+     * The level defaults to {@code INFO} and can be changed with the {@value #LOG_LEVEL_PROPERTY} system property.
      */
     private static void initLogging() {
         logger = Logger.getLogger("TripBuddy");
         logger.setUseParentHandlers(false);
+        Level level;
+        try {
+            level = Level.parse(System.getProperty(LOG_LEVEL_PROPERTY, "INFO").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            level = Level.INFO;
+        }
+        AsyncLogHandler.OverflowPolicy policy;
+        try {
+            policy = AsyncLogHandler.OverflowPolicy.valueOf(
+                    System.getProperty(LOG_POLICY_PROPERTY, "DROP").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            policy = AsyncLogHandler.OverflowPolicy.DROP;
+        }
+        logger.setLevel(level);
         try {
             FileHandler fh = new FileHandler(LOG_PATH, true); // 'true' to append logs
             fh.setFormatter(new SimpleFormatter());
-            logger.addHandler(fh);
+            fh.setLevel(level);
+            logHandler = new AsyncLogHandler(fh, LOG_QUEUE_CAPACITY, policy);
+            logHandler.setLevel(level);
+            logger.addHandler(logHandler);
         } catch (IOException e) {
-            ui.printMessage(ExceptionHandler.handleException(e));
+            System.out.println(ExceptionHandler.handleException(e));
         }
     }
 
     /**
-     * Starts the TripBuddy application.
-     * Loads data, prints the welcome message, and processes user commands until quit is entered.
+     * Writes out pending log records and closes the log file.
      */
-    public static void run() {
+    private static void closeLogging() {
+        if (logHandler != null) {
+            logger.removeHandler(logHandler);
+            logHandler.close();
+        }
+    }
+
+    /**
+     * Sets up logging and the handlers, then loads the saved data.
+     */
+    private static void init() {
         // Initialize logger first
         initLogging();
 
-        dataHandler = new DataHandler(logger);
+        boolean isPretty = !"false".equalsIgnoreCase(System.getProperty(SAVE_PRETTY_PROPERTY));
+        boolean isSync = !"false".equalsIgnoreCase(System.getProperty(SAVE_SYNC_PROPERTY));
+        int generations = Math.max(0, Integer.getInteger(SAVE_GENERATIONS_PROPERTY,
+                seedu.tripbuddy.storage.FileHandler.DEFAULT_GENERATIONS));
+        dataHandler = new DataHandler(logger, isPretty,
+                new seedu.tripbuddy.storage.FileHandler(logger, generations, isSync));
         inputHandler = new InputHandler(logger);
         ui = new Ui();
 
@@ -62,11 +114,34 @@ public class TripBuddy {
             ui.printMessage(message + " Loaded expense data from " + FILE_PATH);
         } catch (FileNotFoundException e) {
             ui.printMessage(ExceptionHandler.handleFileNotFoundException(e));
-            logger.severe("File not found: " + e.getMessage());
+            logger.severe(() -> "File not found: " + e.getMessage());
         } catch (DataLoadingException e) {
             ui.printMessage(ExceptionHandler.handleException(e));
-            logger.severe("Data loading error: " + e.getMessage());
+            logger.severe(() -> "Data loading error: " + e.getMessage());
         }
+    }
+
+    /**
+     * Saves the data and closes the log.
+     */
+    private static void exit() {
+        try {
+            String message = dataHandler.saveData(FILE_PATH, expenseManager);
+            ui.printMessage(message);
+        } catch (IOException e) {
+            ui.printMessage(ExceptionHandler.handleException(e));
+            logger.severe(() -> "Error saving data: " + e.getMessage());
+        }
+        ui.printEndMessage();
+        closeLogging();
+    }
+
+    /**
+     * Starts the TripBuddy application.
+     * Loads data, prints the welcome message, and processes user commands until quit is entered.
+     */
+    public static void run() {
+        init();
 
         // Start user interaction loop
         ui.printStartMessage();
@@ -76,24 +151,47 @@ public class TripBuddy {
                 continue;
             }
             if (inputHandler.isQuitCommand(userInput)) {
-                try {
-                    String message = dataHandler.saveData(FILE_PATH, expenseManager);
-                    ui.printMessage(message);
-                } catch (IOException e) {
-                    ui.printMessage(ExceptionHandler.handleException(e));
-                    logger.severe("Error saving data: " + e.getMessage());
-                }
-                ui.printEndMessage();
+                exit();
                 return;
             }
-            ui.printMessage(inputHandler.handleUserInput(userInput));
+            ui.printMessage(out -> inputHandler.handleUserInput(userInput, out));
         }
     }
 
+    /**
+     * Runs the commands in a script file instead of reading them from the console, then saves and exits.
+     *
+     * @param path   the path of the script file
+     * @param isEcho whether to print each command and its message
+     */
+    public static void runScript(String path, boolean isEcho) {
+        init();
+        ui.printMessage(out -> {
+            try {
+                return new ScriptRunner(inputHandler).run(path, isEcho, out);
+            } catch (InvalidArgumentException e) {
+                return ExceptionHandler.handleInvalidArgumentException(e);
+            }
+        });
+        exit();
+    }
+
     /**
      * The main method that launches the application.
+     * With {@code --script FILE [--quiet]}, runs the commands in FILE instead of starting the interactive loop.
+     * Any other arguments print the usage and exit with a non-zero status.
      */
     public static void main(String[] args) {
-        TripBuddy.run();
+        if (args.length == 0) {
+            TripBuddy.run();
+            return;
+        }
+        boolean isScript = args[0].equals("--script") && args.length >= 2 && !args[1].startsWith("--");
+        boolean isQuiet = args.length == 3 && args[2].equals("--quiet");
+        if (!isScript || (args.length > 2 && !isQuiet)) {
+            System.err.println(USAGE);
+            System.exit(USAGE_EXIT_STATUS);
+        }
+        TripBuddy.runScript(args[1], !isQuiet);
     }
 }
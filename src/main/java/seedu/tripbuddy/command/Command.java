@@ -105,6 +105,17 @@ public class Command {
         return optMap.get(opt);
     }
 
+    /**
+     * Retrieves the value of the specified option, or a default value if the option is not given.
+     *
+     * @param opt        the option flag to retrieve
+     * @param defaultVal the value to return if the option is not found
+     * @return the string value of the option, or {@code defaultVal}
+     */
+    public String getOpt(String opt, String defaultVal) {
+        return optMap.getOrDefault(opt, defaultVal);
+    }
+
     /**
      * Returns the total number of options provided with the command.
      *
@@ -140,4 +151,48 @@ public class Command {
             throw new InvalidArgumentException(val, "Not a number.");
         }
     }
+
+    /**
+     * Parses the value of the given option into an int.
+     * Performs range validation.
+     *
+     * @param opt the option flag whose value should be parsed
+     * @return the parsed int value
+     * @throws MissingOptionException if the option is not present
+     * @throws InvalidArgumentException if the value is not a valid integer,
+     *                                  non-positive, or exceeds {@code MAX_INPUT_VAL}
+     */
+    public int parseInt(String opt) throws MissingOptionException, InvalidArgumentException {
+        return parseInt(opt, 1);
+    }
+
+    /**
+     * Parses the value of the given option into an int no less than {@code min}.
+     * Performs range validation.
+     *
+     * @param opt the option flag whose value should be parsed
+     * @param min the smallest accepted value, either 0 or 1
+     * @return the parsed int value
+     * @throws MissingOptionException if the option is not present
+     * @throws InvalidArgumentException if the value is not a valid integer,
+     *                                  less than {@code min}, or exceeds {@code MAX_INPUT_VAL}
+     */
+    public int parseInt(String opt, int min) throws MissingOptionException, InvalidArgumentException {
+        assert min == 0 || min == 1 : "Only non-negative or positive values are supported";
+        String val = getOpt(opt);
+        try {
+            int ret = Integer.parseInt(val);
+            if (ret < min) {
+                throw new InvalidArgumentException(val,
+                        min == 0 ? "Value should not be negative." : "Value should be more than 0.");
+            }
+            if (ret > MAX_INPUT_VAL) {
+                throw new InvalidArgumentException(val,
+                        "Value should be no more than " + MAX_INPUT_VAL);
+            }
+            return ret;
+        } catch (NumberFormatException e) {
+            throw new InvalidArgumentException(val, "Not an integer.");
+        }
+    }
 }
@@ -36,6 +36,12 @@ public enum Keyword {
     /** Returns the expense with the lowest amount. */
     MIN_EXPENSE,
 
+    /** Returns the expenses with the highest amounts. */
+    TOP_EXPENSE,
+
+    /** Returns the expenses with the lowest amounts. */
+    BOTTOM_EXPENSE,
+
     /** Filters expenses that fall within a date-time range. */
     FILTER_DATE,
 
@@ -64,7 +70,63 @@ public enum Keyword {
     CLEAR_CATEGORY,
 
     /** Edits the amount of an expense. **/
-    EDIT_AMOUNT;
+    EDIT_AMOUNT,
+
+    /** Runs the commands in a script file. **/
+    RUN_SCRIPT,
+
+    /** Imports expenses from a CSV file. **/
+    IMPORT_CSV,
+
+    /** Exports expenses to a CSV or TSV file. **/
+    EXPORT_CSV;
+
+    /** Open-addressing hash table of all keywords by their string form; its size is a power of two. */
+    private static final Keyword[] TABLE = new Keyword[64];
+
+    static {
+        assert values().length * 2 <= TABLE.length : "Keyword table too full";
+        for (Keyword keyword : values()) {
+            String name = keyword.toString();
+            int slot = hash(name, 0, name.length()) & (TABLE.length - 1);
+            while (TABLE[slot] != null) {
+                slot = (slot + 1) & (TABLE.length - 1);
+            }
+            TABLE[slot] = keyword;
+        }
+    }
+
+    /**
+     * Computes the {@link String#hashCode()} of {@code s[from, to)} without creating the substring.
+     */
+    private static int hash(String s, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Finds the keyword whose string form equals {@code s[from, to)}.
+     *
+     * @param s    the string containing the keyword
+     * @param from the start of the keyword
+     * @param to   the end of the keyword
+     * @return the matching keyword, or {@code null} if there is none
+     */
+    public static Keyword lookup(String s, int from, int to) {
+        int length = to - from;
+        int slot = hash(s, from, to) & (TABLE.length - 1);
+        while (TABLE[slot] != null) {
+            String name = TABLE[slot].toString();
+            if (name.length() == length && s.regionMatches(from, name, 0, length)) {
+                return TABLE[slot];
+            }
+            slot = (slot + 1) & (TABLE.length - 1);
+        }
+        return null;
+    }
 
     /**
      * Returns the command keyword in its user-facing string form.
@@ -84,6 +146,8 @@ public enum Keyword {
         case LIST_EXPENSE -> "list-expense";
         case MAX_EXPENSE -> "max-expense";
         case MIN_EXPENSE -> "min-expense";
+        case TOP_EXPENSE -> "top-expense";
+        case BOTTOM_EXPENSE -> "bottom-expense";
         case FILTER_DATE -> "filter-date";
         case VIEW_CURRENCY -> "view-currency";
         case SEARCH -> "search";
@@ -94,6 +158,9 @@ public enum Keyword {
         case DELETE_CATEGORY -> "delete-category";
         case CLEAR_CATEGORY -> "clear-category";
         case EDIT_AMOUNT -> "edit-amount";
+        case RUN_SCRIPT -> "run-script";
+        case IMPORT_CSV -> "import-csv";
+        case EXPORT_CSV -> "export-csv";
         };
     }
 }
@@ -8,9 +8,21 @@ import java.util.logging.Logger;
 /**
  * Responsible for parsing raw command-line input into structured {@link Command} objects.
  * Converts the user's string input into a keyword and its associated options.
+ *
+ * The input is scanned once without splitting it: tokens are separated by spaces or tabs, the keyword is looked up
+ * in {@link Keyword}'s table straight from the input, and option values are cut out of the input as they are.
  */
 public class Parser {
 
+    /** Shared names of single-character options, so that the common options need no new string. */
+    private static final String[] SINGLE_CHAR_NAMES = new String[128];
+
+    static {
+        for (char c = 0; c < SINGLE_CHAR_NAMES.length; c++) {
+            SINGLE_CHAR_NAMES[c] = String.valueOf(c).intern();
+        }
+    }
+
     private final Logger logger;
 
     /**
@@ -22,15 +34,71 @@ public class Parser {
         this.logger = logger;
     }
 
+    /**
+     * Checks whether a character separates tokens.
+     *
+     * @param c the character to check
+     * @return true if the character is a space or a tab
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t';
+    }
 
     /**
-     * Determines whether the given string represents an option (starts with {@code -}).
+     * Determines whether the token {@code s[from, to)} represents an option (starts with {@code -}).
      *
-     * @param s the string to check
-     * @return true if the string is a valid option, false otherwise
+     * @param s    the input
+     * @param from the start of the token
+     * @param to   the end of the token
+     * @return true if the token is a valid option, false otherwise
      */
-    private boolean isOpt(String s) {
-        return s.length() > 1 && s.startsWith("-");
+    private static boolean isOpt(String s, int from, int to) {
+        return to - from > 1 && s.charAt(from) == '-';
+    }
+
+    /**
+     * Returns the name of the option token {@code s[from, to)}, without the leading {@code -}.
+     *
+     * @param s    the input
+     * @param from the start of the token
+     * @param to   the end of the token
+     * @return the option name
+     */
+    private static String toOptName(String s, int from, int to) {
+        char c = s.charAt(from + 1);
+        if (to - from == 2 && c < SINGLE_CHAR_NAMES.length) {
+            return SINGLE_CHAR_NAMES[c];
+        }
+        return s.substring(from + 1, to);
+    }
+
+    /**
+     * Returns the value spanning {@code s[from, to)}, with tabs turned into spaces.
+     *
+     * @param s    the input
+     * @param from the start of the value
+     * @param to   the end of the value
+     * @return the option value
+     */
+    private static String toOptVal(String s, int from, int to) {
+        if (from >= to) {
+            return "";
+        }
+        String val = s.substring(from, to).strip();
+        return val.indexOf('\t') < 0 ? val : val.replace('\t', ' ');
+    }
+
+    /**
+     * Adds an option to a command, logging it if fine logging is enabled.
+     *
+     * @param cmd the command to add to
+     * @param opt the option to add
+     */
+    private void addOption(Command cmd, Option opt) {
+        cmd.addOption(opt);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("New option: \"" + opt + '"');
+        }
     }
 
     /**
@@ -42,51 +110,69 @@ public class Parser {
      * @throws InvalidKeywordException if the command keyword is unrecognized
      */
     public Command parseCommand(String cmdInput) throws InvalidKeywordException {
-        logger.log(Level.INFO, "Start parsing: \"" + cmdInput + '"');
-
-        String[] tokens = cmdInput.strip().replace("\t", " ").split(" ");
-        Command cmd = null;
-
-        String keywordString = tokens[0];
-        for (Keyword i : Keyword.values()) {
-            if (keywordString.equals(i.toString())) {
-                cmd = new Command(i);
-                break;
-            }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Start parsing: \"" + cmdInput + '"');
         }
 
-        // Not a legit keyword
-        if (cmd == null) {
-            throw new InvalidKeywordException(keywordString);
+        int begin = 0;
+        int end = cmdInput.length();
+        while (begin < end && Character.isWhitespace(cmdInput.charAt(begin))) {
+            begin++;
+        }
+        while (end > begin && Character.isWhitespace(cmdInput.charAt(end - 1))) {
+            end--;
         }
 
-        int numTokens = tokens.length;
-        if (numTokens == 1) {
-            return cmd;
+        int pos = begin;
+        while (pos < end && !isSeparator(cmdInput.charAt(pos))) {
+            pos++;
+        }
+        Keyword keyword = Keyword.lookup(cmdInput, begin, pos);
+        // Not a legit keyword
+        if (keyword == null) {
+            throw new InvalidKeywordException(cmdInput.substring(begin, pos));
         }
+        Command cmd = new Command(keyword);
 
         String opt = "";
-        StringBuilder val = new StringBuilder();
-        for (int i = 1; i < numTokens; ++i) {
-            if (!isOpt(tokens[i])) {
-                val.append(tokens[i]).append(' ');
+        boolean hasSegment = false;
+        int valBegin = -1;
+        int valEnd = -1;
+        while (pos < end) {
+            while (pos < end && isSeparator(cmdInput.charAt(pos))) {
+                pos++;
+            }
+            int tokenBegin = pos;
+            while (pos < end && !isSeparator(cmdInput.charAt(pos))) {
+                pos++;
+            }
+            if (tokenBegin == pos) {
+                break;
+            }
+            if (!isOpt(cmdInput, tokenBegin, pos)) {
+                if (valBegin < 0) {
+                    valBegin = tokenBegin;
+                }
+                valEnd = pos;
+                hasSegment = true;
                 continue;
             }
-            // Has extra tokens before the first opt-val pair
-            if (i > 1) {
-                Option newOpt = new Option(opt, val.toString().strip());
-                cmd.addOption(newOpt);
-                logger.log(Level.INFO, "New option: \"" + newOpt + '"');
+            // Has extra tokens before the first opt-val pair, or a previous opt-val pair
+            if (hasSegment) {
+                addOption(cmd, new Option(opt, toOptVal(cmdInput, valBegin, valEnd)));
             }
-            opt = tokens[i].substring(1);
-            val = new StringBuilder();
+            opt = toOptName(cmdInput, tokenBegin, pos);
+            hasSegment = true;
+            valBegin = -1;
+            valEnd = -1;
+        }
+        if (hasSegment) {
+            addOption(cmd, new Option(opt, toOptVal(cmdInput, valBegin, valEnd)));
         }
 
-        Option newOpt = new Option(opt, val.toString().strip());
-        cmd.addOption(newOpt);
-        logger.log(Level.INFO, "New option: \"" + newOpt + '"');
-
-        logger.log(Level.INFO, "End parsing: \"" + cmd + '"');
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("End parsing: \"" + cmd + '"');
+        }
         return cmd;
     }
 }
@@ -0,0 +1,60 @@
+package seedu.tripbuddy.dataclass;
+
+/**
+ * Represents a category that expenses can be grouped under.
+ * The categories of recorded expenses are handed out by a registry, one instance per name with a stable id,
+ * so expenses in the same category share it and are compared by id instead of by name.
+ * A category made from a name alone, e.g. for an expense that is not recorded yet, has no id.
+ */
+public final class Category {
+
+    /** Id of a category that is not registered. */
+    public static final int NO_ID = -1;
+
+    private final String name;
+    private final int id;
+
+    /**
+     * Constructs an unregistered category.
+     *
+     * @param name the name of the category
+     */
+    public Category(String name) {
+        this(name, NO_ID);
+    }
+
+    /**
+     * Constructs a category with its registry id.
+     *
+     * @param name the name of the category
+     * @param id   the id of the category, or {@link #NO_ID}
+     */
+    public Category(String name, int id) {
+        assert name != null : "Category name must not be null";
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Returns the name of the category.
+     *
+     * @return the category name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the registry id of the category.
+     *
+     * @return the category id, or {@link #NO_ID} if the category is not registered
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,8 +1,14 @@
 package seedu.tripbuddy.dataclass;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents supported currencies and their exchange rates relative to the base currency (default: SGD).
  * Each enum constant has a currency code and a conversion rate.
+ *
+ * Rates are stored against SGD as a fixed reference and are never rewritten when the base currency changes,
+ * so switching the base is O(1). The factor from each currency to the base is computed on demand and cached
+ * until the rate table or the base changes.
  */
 public enum Currency {
     MYR("MYR", 3.29),
@@ -23,18 +29,40 @@ public enum Currency {
     ZAR("ZAR", 14.18),
     GBP("GBP", 0.58);
 
+    private static volatile Currency base = SGD;
+    /** Incremented whenever a rate in the table changes. */
+    private static final AtomicInteger rateTableVersion = new AtomicInteger();
+
     private final String name;
-    private double rate;
+    /** Units of this currency per 1 SGD. */
+    private volatile double sgdRate;
+    private volatile FactorCache factorCache = null;
+
+    /**
+     * A conversion factor to the base currency, with the base and rate table version it was computed for.
+     * Immutable, so that it can be read and replaced without locking.
+     */
+    private static class FactorCache {
+        private final double factor;
+        private final Currency base;
+        private final int version;
+
+        private FactorCache(double factor, Currency base, int version) {
+            this.factor = factor;
+            this.base = base;
+            this.version = version;
+        }
+    }
 
     /**
      * Constructs a currency enum with the given name and rate.
      *
-     * @param name the currency code (e.g. \"USD\")
-     * @param rate the exchange rate relative to the base currency
+     * @param name    the currency code (e.g. \"USD\")
+     * @param sgdRate the exchange rate relative to SGD
      */
-    Currency(String name, double rate) {
+    Currency(String name, double sgdRate) {
         this.name = name;
-        this.rate = rate;
+        this.sgdRate = sgdRate;
     }
 
     /**
@@ -53,37 +81,123 @@ public enum Currency {
      * @return the converted amount in this currency
      */
     public double convert(double amount) {
-        return amount * rate;
+        return amount * getRate();
+    }
+
+    /**
+     * Converts an amount in cents from the base currency to this currency, rounded to the nearest cent.
+     *
+     * @param cents the amount in base currency, in cents
+     * @return the converted amount in this currency, in cents
+     */
+    public long convertCents(long cents) {
+        return Money.convert(cents, getRate());
+    }
+
+    /**
+     * Returns the factor that converts an amount in this currency into the base currency.
+     * The factor is cached until the rate table or the base currency changes.
+     *
+     * @return the conversion factor to the base currency
+     */
+    public double getFactorToBase() {
+        Currency currentBase = base;
+        int version = rateTableVersion.get();
+        FactorCache cache = factorCache;
+        if (cache == null || cache.version != version || cache.base != currentBase) {
+            cache = new FactorCache(currentBase.sgdRate / sgdRate, currentBase, version);
+            factorCache = cache;
+        }
+        return cache.factor;
+    }
+
+    /**
+     * Converts an amount in cents from this currency to the base currency, rounded to the nearest cent.
+     * Amounts already in the base currency are returned unchanged.
+     *
+     * @param cents the amount in this currency, in cents
+     * @return the converted amount in the base currency, in cents
+     */
+    public long toBaseCents(long cents) {
+        if (this == base) {
+            return cents;
+        }
+        return Money.convert(cents, getFactorToBase());
+    }
+
+    /**
+     * Converts an amount in cents from this currency to SGD cents, without rounding.
+     * The result does not depend on the base currency, so it can be used to order amounts in different currencies.
+     *
+     * @param cents the amount in this currency, in cents
+     * @return the amount in SGD cents
+     */
+    public double toSgdCents(long cents) {
+        return cents / sgdRate;
     }
 
+    /**
+     * Sums amounts held per currency and converts the sum into the base currency.
+     * Each currency is converted once, so the cost does not depend on the number of amounts summed.
+     *
+     * @param centsByCurrency amounts in cents, indexed by {@link #ordinal()}
+     * @return the total in the base currency, in cents
+     */
+    public static long sumToBaseCents(long[] centsByCurrency) {
+        assert centsByCurrency.length == values().length : "One amount per currency expected";
+        Currency[] currencies = values();
+        long total = 0;
+        for (int i = 0; i < currencies.length; i++) {
+            if (centsByCurrency[i] != 0) {
+                total += currencies[i].toBaseCents(centsByCurrency[i]);
+            }
+        }
+        return total;
+    }
     /**
      * Returns the current exchange rate of this currency relative to the base currency.
      *
      * @return the exchange rate
      */
     public double getRate() {
-        return rate;
+        return sgdRate / base.sgdRate;
     }
 
     /**
      * Updates the exchange rate of this currency.
      *
-     * @param rate the new exchange rate to set
+     * @param rate the new exchange rate to set, relative to the base currency
      */
     public void setRate(double rate) {
-        this.rate = rate;
+        this.sgdRate = rate * base.sgdRate;
+        rateTableVersion.incrementAndGet();
     }
 
     /**
-     * Sets a new base currency by recalculating all exchange rates relative to the given base.
+     * Returns the version of the rate table, which changes whenever a rate is updated.
+     *
+     * @return the rate table version
+     */
+    public static int getRateTableVersion() {
+        return rateTableVersion.get();
+    }
+
+    /**
+     * Returns the current base currency.
+     *
+     * @return the base currency
+     */
+    public static Currency getBaseCurrency() {
+        return base;
+    }
+
+    /**
+     * Sets a new base currency. All exchange rates are read relative to the new base from now on.
      *
      * @param newBase the new base currency
      */
     public static void setBaseCurrency(Currency newBase) {
-        double newBaseRate = newBase.rate;
-        for (Currency c : Currency.values()) {
-            c.rate /= newBaseRate;
-        }
+        base = newBase;
     }
 
     /**
@@ -93,6 +207,6 @@ public enum Currency {
      * @return a string formatted as \"#.## CODE\" (e.g. \"10.50 USD\")
      */
     public String getFormattedAmount(double amount) {
-        return String.format("%.2f", amount) + " " + name;
+        return Money.appendTo(new StringBuilder(32), Money.toCents(amount)).append(' ').append(name).toString();
     }
 }
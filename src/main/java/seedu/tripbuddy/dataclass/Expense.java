@@ -6,19 +6,24 @@ import java.time.format.DateTimeParseException;
 
 import org.json.JSONException;
 import org.json.JSONObject;
-import seedu.tripbuddy.framework.ExpenseManager;
 
 /**
  * Represents an individual travel expense.
  * Contains details such as name, amount, category, and timestamp.
+ * The amount is kept in the currency it was entered in and converted to the base currency when read.
+ * Expenses recorded in {@code ExpenseManager} are changed through its methods, which keep its indexes and totals
+ * up to date; the setters here only change the expense itself.
  */
 public class Expense {
 
-    /** Formatter for consistent date-time representation across the app. */
-    public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /** Formatter for the timestamp layout; parsing and formatting in the app go through {@link Timestamp}. */
+    public static final DateTimeFormatter FORMATTER = Timestamp.FORMATTER;
     private String name;
-    private double amount;
-    private String category;
+    /** Amount in cents of {@link #currency}, see {@link Money}. */
+    private long amountCents;
+    private Currency currency;
+    /** Category of the expense, or {@code null}; recorded expenses share one instance per category. */
+    private Category category;
     private LocalDateTime dateTime;
 
     /**
@@ -29,7 +34,8 @@ public class Expense {
      */
     public Expense(String name, double amount) {
         this.name = name;
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
+        this.currency = Currency.getBaseCurrency();
         this.category = null;
         this.dateTime = LocalDateTime.now();
     }
@@ -43,8 +49,9 @@ public class Expense {
      */
     public Expense(String name, double amount, String category) {
         this.name = name;
-        this.amount = amount;
-        this.category = category;
+        this.amountCents = Money.toCents(amount);
+        this.currency = Currency.getBaseCurrency();
+        this.category = toCategory(category);
         this.dateTime = LocalDateTime.now();
     }
 
@@ -60,10 +67,53 @@ public class Expense {
      * @throws DateTimeParseException if the date-time string is in an invalid format
      */
     public Expense(String name, double amount, String category, String dateTimeStr) throws DateTimeParseException {
+        this(name, amount, Currency.getBaseCurrency(), category, dateTimeStr);
+    }
+
+    /**
+     * Constructs an expense with full data including the currency of the amount and a date-time string.
+     * Used when loading from saved files.
+     *
+     * @param name         the name of the expense
+     * @param amount       the monetary amount spent, in {@code currency}
+     * @param currency     the currency the amount is in
+     * @param category     the category assigned to the expense
+     * @param dateTimeStr  the date-time string to parse
+     *
+     * @throws DateTimeParseException if the date-time string is in an invalid format
+     */
+    public Expense(String name, double amount, Currency currency, String category, String dateTimeStr)
+            throws DateTimeParseException {
+        this(name, amount, currency, category, Timestamp.parse(dateTimeStr));
+    }
+
+    /**
+     * Constructs an expense with full data including the currency of the amount and a timestamp.
+     *
+     * @param name      the name of the expense
+     * @param amount    the monetary amount spent, in {@code currency}
+     * @param currency  the currency the amount is in
+     * @param category  the category assigned to the expense
+     * @param dateTime  the timestamp of the expense
+     */
+    public Expense(String name, double amount, Currency currency, String category, LocalDateTime dateTime) {
         this.name = name;
-        this.amount = amount;
-        this.category = category;
-        this.dateTime = LocalDateTime.parse(dateTimeStr, FORMATTER);
+        this.amountCents = Money.toCents(amount);
+        this.currency = currency;
+        this.category = toCategory(category);
+        this.dateTime = dateTime;
+    }
+
+    /**
+     * Constructs an expense with full data including a timestamp.
+     *
+     * @param name      the name of the expense
+     * @param amount    the monetary amount spent
+     * @param category  the category assigned to the expense
+     * @param dateTime  the timestamp of the expense
+     */
+    public Expense(String name, double amount, String category, LocalDateTime dateTime) {
+        this(name, amount, Currency.getBaseCurrency(), category, dateTime);
     }
 
     /**
@@ -76,30 +126,67 @@ public class Expense {
     }
 
     /**
-     * Updates the name of the expense.
+     * Updates the name of the expense. Recorded expenses are keyed by name and cannot be renamed.
      *
      * @param name the new name to set
      */
-    public void setName(String name) {
+    void setName(String name) {
         this.name = name;
     }
 
     /**
-     * Returns the amount of the expense.
+     * Returns the amount of the expense in the base currency.
      *
      * @return the monetary amount
      */
     public double getAmount() {
-        return amount;
+        return Money.toAmount(getAmountCents());
+    }
+
+    /**
+     * Returns the amount of the expense in the base currency, in cents.
+     *
+     * @return the monetary amount in cents
+     */
+    public long getAmountCents() {
+        return currency.toBaseCents(amountCents);
+    }
+
+    /**
+     * Returns the amount of the expense in the currency it was entered in, in cents.
+     *
+     * @return the monetary amount in cents of {@link #getCurrency()}
+     */
+    public long getOriginalAmountCents() {
+        return amountCents;
     }
 
     /**
-     * Updates the amount of the expense.
+     * Returns the currency the amount of the expense was entered in.
+     *
+     * @return the currency of the amount
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Updates the amount of the expense in the base currency, rounded to the nearest cent.
      *
      * @param amount the new amount to set
      */
     public void setAmount(double amount) {
-        this.amount = amount;
+        setAmountCents(Money.toCents(amount));
+    }
+
+    /**
+     * Updates the amount of the expense in the base currency, in cents.
+     *
+     * @param amountCents the new amount to set, in cents
+     */
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+        this.currency = Currency.getBaseCurrency();
     }
 
     /**
@@ -108,7 +195,16 @@ public class Expense {
      * @return the category string, or null if not set
      */
     public String getCategory() {
-        return category;
+        return category == null ? null : category.getName();
+    }
+
+    /**
+     * Returns the registry id of the category of the expense.
+     *
+     * @return the category id, or {@link Category#NO_ID} if the expense has no category or it is not registered
+     */
+    public int getCategoryId() {
+        return category == null ? Category.NO_ID : category.getId();
     }
 
     /**
@@ -117,7 +213,7 @@ public class Expense {
      * @return the formatted timestamp string
      */
     public String getDateTimeString() {
-        return dateTime.format(FORMATTER);
+        return Timestamp.format(dateTime);
     }
 
     /**
@@ -126,6 +222,15 @@ public class Expense {
      * @param category the new category to assign
      */
     public void setCategory(String category) {
+        this.category = toCategory(category);
+    }
+
+    /**
+     * Updates the category of the expense to a registered category, shared with the other expenses in it.
+     *
+     * @param category the new category to assign
+     */
+    public void setCategory(Category category) {
         this.category = category;
     }
 
@@ -172,20 +277,23 @@ public class Expense {
         return currency.getFormattedAmount(amount);
     }
 
+    /**
+     * Wraps a category name in an unregistered {@link Category}.
+     *
+     * @param name the category name, or {@code null}
+     * @return the category, or {@code null} if {@code name} is {@code null}
+     */
+    private static Category toCategory(String name) {
+        return name == null ? null : new Category(name);
+    }
+
     /**
      * Returns a human-readable string of the expense including currency and date.
+     * To print many expenses, reuse one {@link ExpenseRenderer} instead.
      */
     @Override
     public String toString() {
-        String dateTimeStr = dateTime.format(FORMATTER);
-        Currency baseCurrency = ExpenseManager.getInstance().getBaseCurrency();
-        if (category == null) {
-            return "name: " + name + ", amount: " +
-                    getFormattedAmount(amount, baseCurrency) +
-                    ", date: " + dateTimeStr;
-        }
-        return "name: " + name + ", amount: " + getFormattedAmount(amount, baseCurrency)
-                + ", category: " + category + ", date: " + dateTimeStr;
+        return new ExpenseRenderer().render(this).toString();
     }
 
     /**
@@ -196,14 +304,15 @@ public class Expense {
     public JSONObject toJSON() {
         JSONObject ret = new JSONObject();
         ret.put("name", name);
-        ret.put("amount", (int)(amount * 100 + .5) / 100.);
-        ret.put("category", category);
+        ret.put("amount", Money.toAmount(amountCents));
+        ret.put("currency", currency.toString());
+        ret.put("category", getCategory());
         ret.put("dateTime", getDateTimeString());
         return ret;
     }
 
     /**
-     * Deserializes an expense from a {@link JSONObject}.
+     * Deserializes an expense from a {@link JSONObject}, taking an amount without a currency in the base currency.
      * Used when reading from saved files.
      *
      * @param json the JSON object containing the expense data
@@ -211,8 +320,30 @@ public class Expense {
      * @throws JSONException if any required field is missing or date format is invalid
      */
     public static Expense fromJSON(JSONObject json) throws JSONException {
+        return fromJSON(json, Currency.getBaseCurrency());
+    }
+
+    /**
+     * Deserializes an expense from a {@link JSONObject}.
+     * Used when reading from saved files.
+     *
+     * @param json            the JSON object containing the expense data
+     * @param defaultCurrency the currency of the amount if the expense has none of its own
+     * @return the constructed {@code Expense}
+     * @throws JSONException if any required field is missing or date format is invalid
+     */
+    public static Expense fromJSON(JSONObject json, Currency defaultCurrency) throws JSONException {
         String name = json.getString("name");
         double amount = json.getDouble("amount");
+        Currency currency = defaultCurrency;
+        String currencyName = json.optString("currency", null);
+        if (currencyName != null) {
+            try {
+                currency = Currency.valueOf(currencyName);
+            } catch (IllegalArgumentException e) {
+                throw new JSONException(currencyName + ": Unrecognized currency!");
+            }
+        }
         String category = json.optString("category", null); // returns null if not present
         String dateTimeStr = json.getString("dateTime");
 
@@ -221,7 +352,7 @@ public class Expense {
             category = null;
         }
         try {
-            return new Expense(name, amount, category, dateTimeStr);
+            return new Expense(name, amount, currency, category, dateTimeStr);
         } catch (DateTimeParseException e) {
             throw new JSONException(e.getParsedString() +
                     ": Invalid date/time format! Please use yyyy-MM-dd HH:mm:ss");
@@ -0,0 +1,43 @@
+package seedu.tripbuddy.dataclass;
+
+/**
+ * Formats expenses as display rows, e.g. {@code name: lunch, amount: 12.50 SGD, category: food, date: ...}.
+ * The rows are the same as {@link Expense#toString()}, but are appended to a caller-supplied or reused builder,
+ * amounts are formatted from cents without {@code String.format}, and dates are written with {@link Timestamp}.
+ *
+ * A renderer keeps state between calls and is not thread-safe; use one per thread.
+ */
+public class ExpenseRenderer {
+
+    private static final int ROW_CAPACITY = 128;
+
+    private final StringBuilder buffer = new StringBuilder(ROW_CAPACITY);
+
+    /**
+     * Formats an expense into the builder owned by this renderer.
+     * The returned builder is reused, so its content is only valid until the next call.
+     *
+     * @param expense the expense to format
+     * @return the builder holding the formatted row
+     */
+    public StringBuilder render(Expense expense) {
+        buffer.setLength(0);
+        return appendTo(buffer, expense);
+    }
+
+    /**
+     * Appends the row of an expense, in the current base currency.
+     *
+     * @param sb      the builder to append to
+     * @param expense the expense to format
+     * @return the given builder
+     */
+    public StringBuilder appendTo(StringBuilder sb, Expense expense) {
+        sb.append("name: ").append(expense.getName()).append(", amount: ");
+        Money.appendTo(sb, expense.getAmountCents()).append(' ').append(Currency.getBaseCurrency().getFullName());
+        if (expense.belongsToCategory()) {
+            sb.append(", category: ").append(expense.getCategory());
+        }
+        return Timestamp.appendTo(sb.append(", date: "), expense.getDateTime());
+    }
+}
@@ -0,0 +1,79 @@
+package seedu.tripbuddy.dataclass;
+
+/**
+ * Fixed-point arithmetic for money amounts.
+ * Amounts are held as a {@code long} count of cents (1/100 of a currency unit), so sums and differences are exact.
+ * Rounding only happens where a {@code double} enters the system, i.e. user input, saved data and
+ * currency conversion, and always rounds half away from zero to the nearest cent.
+ */
+public final class Money {
+
+    /** Number of cents in one currency unit. */
+    public static final int CENTS_PER_UNIT = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Rounds an amount to the nearest cent.
+     *
+     * @param amount the amount in currency units
+     * @return the amount in cents
+     */
+    public static long toCents(double amount) {
+        return amount < 0 ? -Math.round(-amount * CENTS_PER_UNIT) : Math.round(amount * CENTS_PER_UNIT);
+    }
+
+    /**
+     * Converts an amount in cents back to currency units.
+     *
+     * @param cents the amount in cents
+     * @return the amount in currency units
+     */
+    public static double toAmount(long cents) {
+        return (double) cents / CENTS_PER_UNIT;
+    }
+
+    /**
+     * Multiplies an amount by an exchange rate and rounds the result to the nearest cent.
+     *
+     * @param cents the amount in cents
+     * @param rate  the exchange rate to apply
+     * @return the converted amount in cents
+     */
+    public static long convert(long cents, double rate) {
+        return toCents(toAmount(cents) * rate);
+    }
+
+    /**
+     * Appends an amount with exactly two decimal places, e.g. {@code 1234} cents as {@code 12.34}.
+     * Gives the same digits as {@code String.format("%.2f", amount)} without parsing a format string.
+     *
+     * @param sb    the builder to append to
+     * @param cents the amount in cents
+     * @return the given builder
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long cents) {
+        assert cents != Long.MIN_VALUE : "Amount out of range";
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        sb.append(cents / CENTS_PER_UNIT).append('.');
+        int fraction = (int) (cents % CENTS_PER_UNIT);
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+
+    /**
+     * Formats an amount with exactly two decimal places.
+     *
+     * @param cents the amount in cents
+     * @return the formatted amount, e.g. {@code "12.34"}
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(24), cents).toString();
+    }
+}
@@ -0,0 +1,141 @@
+package seedu.tripbuddy.dataclass;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parsing and formatting of timestamps in the fixed layout {@value #PATTERN}, e.g. {@code 2025-04-01 12:30:00}.
+ * Every field has a fixed width, so the digits are read and written in place instead of going through
+ * {@link DateTimeFormatter}, which has to interpret the pattern and resolve the parsed fields on every call.
+ *
+ * Parsing is strict: a date that does not exist, such as {@code 2025-02-30}, or the hour {@code 24} is rejected
+ * rather than adjusted. Errors are reported as a {@link DateTimeParseException} worded as by {@link #FORMATTER}.
+ */
+public final class Timestamp {
+
+    /** The layout of a timestamp. */
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+    /** Formatter for the same layout, for code that needs a {@link DateTimeFormatter}. */
+    public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    /** Number of characters in a timestamp. */
+    public static final int LENGTH = PATTERN.length();
+
+    private Timestamp() {
+    }
+
+    /**
+     * Parses a timestamp.
+     *
+     * @param text the text to parse
+     * @return the timestamp
+     * @throws DateTimeParseException if the text is not in the layout or is not a valid date and time
+     */
+    public static LocalDateTime parse(CharSequence text) throws DateTimeParseException {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses a timestamp from part of a character sequence, without copying it out first.
+     *
+     * @param text the characters to parse from
+     * @param from the index of the first character of the timestamp
+     * @param to   the index after the last character of the timestamp
+     * @return the timestamp
+     * @throws DateTimeParseException if the characters are not in the layout or are not a valid date and time
+     */
+    public static LocalDateTime parse(CharSequence text, int from, int to) throws DateTimeParseException {
+        int year = readDigits(text, from, to, 0, 4);
+        expect(text, from, to, 4, '-');
+        int month = readDigits(text, from, to, 5, 2);
+        expect(text, from, to, 7, '-');
+        int day = readDigits(text, from, to, 8, 2);
+        expect(text, from, to, 10, ' ');
+        int hour = readDigits(text, from, to, 11, 2);
+        expect(text, from, to, 13, ':');
+        int minute = readDigits(text, from, to, 14, 2);
+        expect(text, from, to, 16, ':');
+        int second = readDigits(text, from, to, 17, 2);
+        if (to - from > LENGTH) {
+            String parsed = text.subSequence(from, to).toString();
+            throw new DateTimeParseException("Text '" + parsed + "' could not be parsed, unparsed text found at index "
+                    + LENGTH, parsed, LENGTH);
+        }
+        try {
+            if (year == 0) {
+                throw new DateTimeException(
+                        "Invalid value for YearOfEra (valid values 1 - 999999999/1000000000): 0");
+            }
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            String parsed = text.subSequence(from, to).toString();
+            throw new DateTimeParseException("Text '" + parsed + "' could not be parsed: " + e.getMessage(),
+                    parsed, 0, e);
+        }
+    }
+
+    /**
+     * Reads a fixed number of decimal digits at an offset into the timestamp.
+     * Like {@link DateTimeFormatter}, reports a malformed field at the index where the field starts.
+     */
+    private static int readDigits(CharSequence text, int from, int to, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = from + i < to ? text.charAt(from + i) - '0' : -1;
+            if (digit < 0 || digit > 9) {
+                throw layoutError(text, from, to, offset);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void expect(CharSequence text, int from, int to, int offset, char separator) {
+        if (from + offset >= to || text.charAt(from + offset) != separator) {
+            throw layoutError(text, from, to, offset);
+        }
+    }
+
+    private static DateTimeParseException layoutError(CharSequence text, int from, int to, int index) {
+        String parsed = text.subSequence(from, to).toString();
+        return new DateTimeParseException("Text '" + parsed + "' could not be parsed at index " + index,
+                parsed, index);
+    }
+
+    /**
+     * Appends a timestamp in the layout, ignoring fractions of a second.
+     * Years outside 1 to 9999, which do not fit the layout, are left to {@link #FORMATTER}.
+     *
+     * @param sb       the builder to append to
+     * @param dateTime the timestamp
+     * @return the given builder
+     */
+    public static StringBuilder appendTo(StringBuilder sb, LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > 9999) {
+            return sb.append(dateTime.format(FORMATTER));
+        }
+        appendTwoDigits(sb, year / 100);
+        appendTwoDigits(sb, year % 100).append('-');
+        appendTwoDigits(sb, dateTime.getMonthValue()).append('-');
+        appendTwoDigits(sb, dateTime.getDayOfMonth()).append(' ');
+        appendTwoDigits(sb, dateTime.getHour()).append(':');
+        appendTwoDigits(sb, dateTime.getMinute()).append(':');
+        return appendTwoDigits(sb, dateTime.getSecond());
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Formats a timestamp in the layout, ignoring fractions of a second.
+     *
+     * @param dateTime the timestamp
+     * @return the formatted timestamp, e.g. {@code "2025-04-01 12:30:00"}
+     */
+    public static String format(LocalDateTime dateTime) {
+        return appendTo(new StringBuilder(LENGTH), dateTime).toString();
+    }
+}
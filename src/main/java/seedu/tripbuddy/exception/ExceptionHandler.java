@@ -53,6 +53,25 @@ public class ExceptionHandler {
         return "Oh no. Cannot not find option label: -" + missingOpt;
     }
 
+    /**
+     * Handles any invalid command exception by its concrete type.
+     *
+     * @param e The exception describing what is wrong with the command.
+     * @return A user-friendly message describing the error.
+     */
+    public static String handleInvalidCommandException(InvalidCommandException e) {
+        if (e instanceof InvalidKeywordException keywordException) {
+            return handleInvalidKeywordException(keywordException);
+        }
+        if (e instanceof MissingOptionException missingOptionException) {
+            return handleMissingOptionException(missingOptionException);
+        }
+        if (e instanceof InvalidArgumentException argumentException) {
+            return handleInvalidArgumentException(argumentException);
+        }
+        return handleException(e);
+    }
+
     /**
      * Handles date/time parsing exceptions.
      *
@@ -0,0 +1,195 @@
+package seedu.tripbuddy.framework;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A log handler that hands records to a background thread, which publishes them to another handler.
+ * Logging threads only put records on a bounded queue and never wait for log I/O, unless the
+ * {@link OverflowPolicy#BLOCK} policy is chosen and the queue is full.
+ *
+ * Records dropped because of a full queue are counted and reported in a single warning once the writer catches up.
+ */
+public class AsyncLogHandler extends Handler {
+
+    /**
+     * What to do with a record when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Discards the record and counts it. */
+        DROP,
+        /** Waits until the writer makes room. */
+        BLOCK
+    }
+
+    /** Longest time to wait for the writer when flushing or closing. */
+    private static final long WAIT_MILLIS = 5000;
+    /** Most records the writer publishes before checking for dropped records again. */
+    private static final int BATCH_SIZE = 256;
+
+    private final Handler target;
+    private final OverflowPolicy policy;
+    private final BlockingQueue<LogRecord> queue;
+    private final Thread writer;
+
+    /**
+     * Number of records handed to the queue. A record is counted before it is queued, so that the writer can never be
+     * done with more records than this, and uncounted if it is dropped instead.
+     */
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    /** Number of records the writer is done with. Guarded by {@code this}. */
+    private long writtenCount = 0;
+    private volatile boolean isClosed = false;
+
+    /**
+     * Constructs a handler and starts its writer thread.
+     *
+     * @param target   the handler that does the actual publishing
+     * @param capacity the maximum number of records waiting to be written
+     * @param policy   what to do when the queue is full
+     */
+    public AsyncLogHandler(Handler target, int capacity, OverflowPolicy policy) {
+        assert target != null : "Target handler must not be null";
+        assert capacity > 0 : "Capacity must be positive";
+        this.target = target;
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        writer = new Thread(this::drain, "TripBuddy-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns the number of records dropped so far because the queue was full.
+     *
+     * @return the dropped record count
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Queues a record for the writer thread.
+     * The source class and method are looked up here, as they cannot be inferred from the writer thread.
+     *
+     * @param record the record to publish
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (isClosed || !isLoggable(record)) {
+            return;
+        }
+        record.getSourceClassName();
+        enqueuedCount.incrementAndGet();
+        if (policy == OverflowPolicy.DROP) {
+            if (!queue.offer(record)) {
+                drop();
+            }
+            return;
+        }
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            drop();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Counts a record that was counted as queued but could not be queued, and wakes up flushes waiting for it.
+     */
+    private void drop() {
+        enqueuedCount.decrementAndGet();
+        droppedCount.incrementAndGet();
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Publishes queued records until the handler is closed and the queue is empty.
+     */
+    private void drain() {
+        ArrayList<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        long reportedDrops = 0;
+        while (!isClosed || !queue.isEmpty()) {
+            try {
+                LogRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            for (LogRecord record : batch) {
+                target.publish(record);
+            }
+            long drops = droppedCount.get();
+            if (drops > reportedDrops) {
+                target.publish(new LogRecord(Level.WARNING,
+                        (drops - reportedDrops) + " log records dropped as the log queue was full"));
+                reportedDrops = drops;
+            }
+            if (queue.isEmpty()) {
+                target.flush();
+            }
+            synchronized (this) {
+                writtenCount += batch.size();
+                notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Waits until every record queued before this call has been written, then flushes the target handler.
+     * Gives up after a few seconds so that a stuck writer cannot hang the caller.
+     */
+    @Override
+    public void flush() {
+        long goal = enqueuedCount.get();
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        synchronized (this) {
+            // records dropped since the goal was read will never be written
+            while (writtenCount < Math.min(goal, enqueuedCount.get()) && writer.isAlive()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        target.flush();
+    }
+
+    /**
+     * Stops accepting records, writes the ones already queued and closes the target handler.
+     */
+    @Override
+    public void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        try {
+            writer.join(WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+    }
+}
@@ -0,0 +1,234 @@
+package seedu.tripbuddy.framework;
+
+import seedu.tripbuddy.dataclass.Category;
+import seedu.tripbuddy.dataclass.Currency;
+import seedu.tripbuddy.dataclass.Expense;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Dictionary of category names with stable integer ids.
+ * Each name is stored once in a {@link Category} that carries its id and is shared by the expenses in the category.
+ * For every category the registry also keeps its expenses, their count and their total amount.
+ *
+ * Ids are assigned in creation order and stay the same until {@link #clear()}, even if a category is deleted
+ * and created again.
+ *
+ * The registry is not synchronized: the owner calls the mutators under its write lock and the queries under at least
+ * its read lock. Queries therefore never write to the registry.
+ */
+public class CategoryRegistry {
+
+    /** Id returned for names that are not registered. */
+    public static final int NO_ID = Category.NO_ID;
+
+    /**
+     * State of one category.
+     */
+    private static class Entry {
+        private final Category category;
+        private final LinkedHashSet<Expense> members = new LinkedHashSet<>();
+        private boolean isActive = false;
+        /** Total amount in cents, per currency the amounts were entered in. */
+        private final long[] totalCents = new long[Currency.values().length];
+
+        private Entry(Category category) {
+            this.category = category;
+        }
+    }
+
+    private final ArrayList<Entry> entries = new ArrayList<>();
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    /** Names of the active categories, rebuilt by every mutator that creates or deletes a category. */
+    private List<String> activeNames = List.of();
+
+    /**
+     * Returns the id of an active category.
+     *
+     * @param name the category name
+     * @return the category id, or {@link #NO_ID} if the category does not exist
+     */
+    public int getId(String name) {
+        Integer id = ids.get(name);
+        if (id == null || !entries.get(id).isActive) {
+            return NO_ID;
+        }
+        return id;
+    }
+
+    /**
+     * Checks whether a category exists.
+     *
+     * @param name the category name
+     * @return {@code true} if the category exists
+     */
+    public boolean contains(String name) {
+        return getId(name) != NO_ID;
+    }
+
+    /**
+     * Creates a category if it does not exist yet.
+     *
+     * @param name the category name
+     * @return the id of the category
+     */
+    public int register(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = entries.size();
+            entries.add(new Entry(new Category(name, id)));
+            ids.put(name, id);
+        }
+        Entry entry = entries.get(id);
+        if (!entry.isActive) {
+            entry.isActive = true;
+            refreshNames();
+        }
+        return id;
+    }
+
+    /**
+     * Returns the shared instance of a registered category.
+     *
+     * @param id the category id
+     * @return the category
+     */
+    public Category getCategory(int id) {
+        return entries.get(id).category;
+    }
+
+    /**
+     * Returns the shared instance of a registered category name.
+     *
+     * @param id the category id
+     * @return the category name
+     */
+    public String getName(int id) {
+        return entries.get(id).category.getName();
+    }
+
+    /**
+     * Returns the names of all existing categories in creation order.
+     *
+     * @return an unmodifiable list of category names
+     */
+    public List<String> getNames() {
+        return activeNames;
+    }
+
+    /**
+     * Deletes a category. Its id is kept for the name in case it is created again.
+     *
+     * @param id the category id
+     */
+    public void remove(int id) {
+        Entry entry = entries.get(id);
+        assert entry.members.isEmpty() : "Only empty categories can be removed";
+        entry.isActive = false;
+        refreshNames();
+    }
+
+    /**
+     * Records an expense under a category.
+     *
+     * @param id      the category id
+     * @param expense the expense to add
+     */
+    public void addMember(int id, Expense expense) {
+        Entry entry = entries.get(id);
+        if (entry.members.add(expense)) {
+            entry.totalCents[expense.getCurrency().ordinal()] += expense.getOriginalAmountCents();
+        }
+    }
+
+    /**
+     * Removes an expense from a category.
+     *
+     * @param id      the category id
+     * @param expense the expense to remove
+     */
+    public void removeMember(int id, Expense expense) {
+        Entry entry = entries.get(id);
+        if (entry.members.remove(expense)) {
+            entry.totalCents[expense.getCurrency().ordinal()] -= expense.getOriginalAmountCents();
+        }
+    }
+
+    /**
+     * Adjusts the total of a category after the amount of one of its expenses changed.
+     *
+     * @param id         the category id
+     * @param currency   the currency of the change
+     * @param deltaCents the change in amount, in cents of {@code currency}
+     */
+    public void adjustTotal(int id, Currency currency, long deltaCents) {
+        entries.get(id).totalCents[currency.ordinal()] += deltaCents;
+    }
+
+    /**
+     * Returns the expenses under a category, in the order they joined it.
+     *
+     * @param id the category id
+     * @return a new list of the expenses
+     */
+    public List<Expense> getMembers(int id) {
+        return new ArrayList<>(entries.get(id).members);
+    }
+
+    /**
+     * Returns a page of the expenses under a category, in the order they joined it.
+     * Only the expenses up to the end of the page are visited.
+     *
+     * @param id     the category id
+     * @param offset the number of expenses to skip
+     * @param limit  the maximum number of expenses on the page
+     * @return the page of expenses
+     */
+    public ExpensePage getMembers(int id, int offset, int limit) {
+        ExpensePage.Builder page = new ExpensePage.Builder(offset, limit);
+        page.addAll(entries.get(id).members, getTotalCents(id));
+        return page.build();
+    }
+
+    /**
+     * Returns the number of expenses under a category.
+     *
+     * @param id the category id
+     * @return the expense count
+     */
+    public int getCount(int id) {
+        return entries.get(id).members.size();
+    }
+
+    /**
+     * Returns the total amount of the expenses under a category.
+     *
+     * @param id the category id
+     * @return the total amount in the base currency, in cents
+     */
+    public long getTotalCents(int id) {
+        return Currency.sumToBaseCents(entries.get(id).totalCents);
+    }
+
+    /**
+     * Removes all categories and resets the ids.
+     */
+    public void clear() {
+        entries.clear();
+        ids.clear();
+        activeNames = List.of();
+    }
+
+    private void refreshNames() {
+        ArrayList<String> names = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.isActive) {
+                names.add(entry.category.getName());
+            }
+        }
+        activeNames = List.copyOf(names);
+    }
+}
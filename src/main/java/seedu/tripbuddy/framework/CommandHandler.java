@@ -1,11 +1,22 @@
 package seedu.tripbuddy.framework;
 
+import seedu.tripbuddy.dataclass.Category;
 import seedu.tripbuddy.dataclass.Currency;
 import seedu.tripbuddy.dataclass.Expense;
+import seedu.tripbuddy.dataclass.ExpenseRenderer;
+import seedu.tripbuddy.dataclass.Money;
+import seedu.tripbuddy.dataclass.Timestamp;
 import seedu.tripbuddy.exception.InvalidArgumentException;
-
+import seedu.tripbuddy.storage.CsvHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 import java.util.List;
@@ -16,6 +27,12 @@ import java.util.List;
  */
 public class CommandHandler {
 
+    /** Limit that shows every row of a listing. */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    /** Number of characters of rows collected before they are written out. */
+    private static final int CHUNK_SIZE = 8192;
+
     private final ExpenseManager expenseManager;
 
     /**
@@ -56,17 +73,23 @@ public class CommandHandler {
                         - Remove an expense by name.
                 edit-amount EXPENSE_NAME -a AMOUNT
                         - Edit the amount associated with an expense. Override the previous amount.
-                list-expense [CATEGORY]
+                list-expense [CATEGORY] [-l LIMIT] [-o OFFSET]
                         - Show all expenses, or expenses under a category if CATEGORY is given.
                         - Calculate sum of recorded expenses.
-                search SEARCHWORD
+                search SEARCHWORD [-l LIMIT] [-o OFFSET]
                         - Displays expenses that include the given search word.
                 max-expense
                         - Display an expense with the highest amount.
                 min-expense
                         - Display an expense with the lowest amount.
-                filter-date -f yyyy-MM-dd HH:mm:ss -t yyyy-MM-dd HH:mm:ss
+                top-expense N
+                        - Display the N expenses with the highest amounts.
+                bottom-expense N
+                        - Display the N expenses with the lowest amounts.
+                filter-date -f yyyy-MM-dd HH:mm:ss -t yyyy-MM-dd HH:mm:ss [-l LIMIT] [-o OFFSET]
                         - Get all expenses within date range, inclusive.
+                list-expense, search and filter-date accept -l and -o
+                        - Show at most LIMIT expenses, after skipping the first OFFSET.
                 create-category CATEGORY
                         - Create a new expense category.
                 delete-category CATEGORY_NAME
@@ -81,6 +104,15 @@ public class CommandHandler {
                         - Updates the timestamp for an existing expense.
                 clear
                         - Clears all past expenses and categories.
+                import-csv FILE
+                        - Adds the expenses in a CSV file with columns name,amount,currency,category,timestamp.
+                        - Only name and amount are needed; a header line may list the columns in another order.
+                export-csv FILE [-c CATEGORY] [-f yyyy-MM-dd HH:mm:ss] [-t yyyy-MM-dd HH:mm:ss] [-s COLUMNS]
+                        - Writes the matching expenses to FILE, tab-separated if FILE ends with .tsv.
+                        - COLUMNS is a comma-separated list of name,amount,currency,category,timestamp.
+                run-script FILE [-q]
+                        - Runs the commands in FILE, one per line, and prints a summary.
+                        - With -q, only errors and the summary are printed.
                 quit
                         - Exits the program.
                 
@@ -217,6 +249,47 @@ public class CommandHandler {
                 ". Time to rein it in!\nConsider adjusting your budget to get back on track!";
     }
 
+    /**
+     * Creates a stream that collects what is written to it, for building a message from a streaming handler.
+     *
+     * @param buffer the buffer to collect into
+     * @return a stream writing into {@code buffer}
+     */
+    private static PrintStream toStream(ByteArrayOutputStream buffer) {
+        return new PrintStream(buffer, true, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes one page of expenses, one row per expense, followed by a note if the page does not show every row.
+     *
+     * @param page the page of matching expenses
+     * @param out  the stream to write to
+     */
+    private static void writeRows(ExpensePage page, PrintStream out) {
+        int size = page.total();
+        int from = page.offset();
+        int to = from + page.expenses().size();
+        ExpenseRenderer renderer = new ExpenseRenderer();
+        StringBuilder chunk = new StringBuilder(CHUNK_SIZE + 256);
+        for (Expense expense : page.expenses()) {
+            renderer.appendTo(chunk.append("\n - "), expense);
+            if (chunk.length() >= CHUNK_SIZE) {
+                out.append(chunk);
+                chunk.setLength(0);
+            }
+        }
+        out.append(chunk);
+        if (from == to) {
+            out.print("\n(No expenses after the first " + size + ".)");
+        } else if (from > 0 || to < size) {
+            out.print("\n(Showing " + (from + 1) + " to " + to + " of " + size + ".");
+            if (to < size) {
+                out.print(" Use -o " + to + " to see more.");
+            }
+            out.print(")");
+        }
+    }
+
     /**
      * Lists all expenses or filters by category.
      *
@@ -225,30 +298,41 @@ public class CommandHandler {
      * @throws InvalidArgumentException if an error occurs retrieving expenses
      */
     public String handleListExpense(String category) throws InvalidArgumentException {
-        List<Expense> expenses = (category == null? expenseManager.getExpenses() :
-                expenseManager.getExpensesByCategory(category));
-        StringBuilder expensesString = new StringBuilder();
-        double totalAmount = 0;
-        for (Expense expense : expenses) {
-            expensesString.append("\n - ").append(expense.toString());
-            totalAmount += expense.getAmount();
-        }
-        expensesString.append("\nTotal amount spent: ")
-                .append(expenseManager.getBaseCurrency().getFormattedAmount(totalAmount)).append(".");
-        if (!expenses.isEmpty()) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        handleListExpense(category, 0, NO_LIMIT, toStream(buffer));
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lists a page of all expenses or of the expenses in a category, writing the rows as they are formatted.
+     * Nothing is written if the category does not exist.
+     *
+     * @param category the category to filter by (null to list all expenses)
+     * @param offset   the number of expenses to skip
+     * @param limit    the maximum number of expenses to list
+     * @param out      the stream to write the message to
+     * @throws InvalidArgumentException if an error occurs retrieving expenses
+     */
+    public void handleListExpense(String category, int offset, int limit, PrintStream out)
+            throws InvalidArgumentException {
+        ExpensePage page = (category == null ? expenseManager.getExpenses(offset, limit) :
+                expenseManager.getExpensesByCategory(category, offset, limit));
+        if (page.isEmpty()) {
             if (category != null) {
-                return "Here is a list of your past expenses in category `" + category + "`: " + expensesString;
+                out.print("There are no expenses in category `" + category + "`.");
             } else {
-                return "Here is a list of your past expenses: " + expensesString;
+                out.print("There are no expenses.");
             }
+            return;
+        }
+        if (category != null) {
+            out.print("Here is a list of your past expenses in category `" + category + "`: ");
         } else {
-            if (category != null) {
-                return "There are no expenses in category `" + category + "`.";
-            } else {
-                return "There are no expenses.";
-            }
+            out.print("Here is a list of your past expenses: ");
         }
-
+        writeRows(page, out);
+        double totalAmount = Money.toAmount(page.totalCents());
+        out.print("\nTotal amount spent: " + expenseManager.getBaseCurrency().getFormattedAmount(totalAmount) + ".");
     }
 
     /**
@@ -273,6 +357,40 @@ public class CommandHandler {
         return "Minimum expense: " + minExpense.toString();
     }
 
+    /**
+     * Retrieves the expenses with the highest amounts.
+     *
+     * @param n the maximum number of expenses to display
+     * @return a message listing the expenses from the highest amount down
+     * @throws InvalidArgumentException if no expenses are recorded
+     */
+    public String handleTopExpense(int n) throws InvalidArgumentException {
+        List<Expense> expenses = expenseManager.getTopExpenses(n);
+        StringBuilder sb = new StringBuilder("Top " + expenses.size() + " expense(s) by amount:");
+        ExpenseRenderer renderer = new ExpenseRenderer();
+        for (Expense expense : expenses) {
+            renderer.appendTo(sb.append("\n - "), expense);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Retrieves the expenses with the lowest amounts.
+     *
+     * @param n the maximum number of expenses to display
+     * @return a message listing the expenses from the lowest amount up
+     * @throws InvalidArgumentException if no expenses are recorded
+     */
+    public String handleBottomExpense(int n) throws InvalidArgumentException {
+        List<Expense> expenses = expenseManager.getBottomExpenses(n);
+        StringBuilder sb = new StringBuilder("Bottom " + expenses.size() + " expense(s) by amount:");
+        ExpenseRenderer renderer = new ExpenseRenderer();
+        for (Expense expense : expenses) {
+            renderer.appendTo(sb.append("\n - "), expense);
+        }
+        return sb.toString();
+    }
+
     /**
      * Filters and lists all expenses between two specified date-time values.
      *
@@ -284,21 +402,35 @@ public class CommandHandler {
      */
     public String handleFilterExpenseByDateRange(String startStr, String endStr)
             throws DateTimeParseException, InvalidArgumentException {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-        LocalDateTime start = LocalDateTime.parse(startStr, formatter);
-        LocalDateTime end = LocalDateTime.parse(endStr, formatter);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        handleFilterExpenseByDateRange(startStr, endStr, 0, NO_LIMIT, toStream(buffer));
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
 
-        List<Expense> filteredExpenses = expenseManager.getExpensesByDateRange(start, end);
-        if (filteredExpenses.isEmpty()) {
-            return "No expenses found between " + startStr + " and " + endStr + ".";
-        } else {
-            StringBuilder sb = new StringBuilder("Expenses between " + startStr + " and " + endStr + ":");
-            for (Expense expense : filteredExpenses) {
-                sb.append("\n - ").append(expense.toString());
-            }
-            return sb.toString();
+    /**
+     * Lists a page of the expenses between two date-time values, writing the rows as they are formatted.
+     * Nothing is written if either date-time value is invalid.
+     *
+     * @param startStr the start date-time string in format yyyy-MM-dd HH:mm:ss
+     * @param endStr   the end date-time string in format yyyy-MM-dd HH:mm:ss
+     * @param offset   the number of expenses to skip
+     * @param limit    the maximum number of expenses to list
+     * @param out      the stream to write the message to
+     * @throws DateTimeParseException      if either start or end date-time strings are invalid
+     * @throws InvalidArgumentException    if filtering fails due to internal logic constraints
+     */
+    public void handleFilterExpenseByDateRange(String startStr, String endStr, int offset, int limit,
+            PrintStream out) throws DateTimeParseException, InvalidArgumentException {
+        LocalDateTime start = Timestamp.parse(startStr);
+        LocalDateTime end = Timestamp.parse(endStr);
+
+        ExpensePage page = expenseManager.getExpensesByDateRange(start, end, offset, limit);
+        if (page.isEmpty()) {
+            out.print("No expenses found between " + startStr + " and " + endStr + ".");
+            return;
         }
+        out.print("Expenses between " + startStr + " and " + endStr + ":");
+        writeRows(page, out);
     }
 
     /**
@@ -330,16 +462,27 @@ public class CommandHandler {
      * @return A string listing all matched expenses or a message if no matches are found.
      */
     public String handleSearch(String searchWord) {
-        List<Expense> expenses = expenseManager.getExpensesBySearchword(searchWord);
-        if (expenses.isEmpty()) {
-            return "There are no expenses that matched your search word: " + searchWord + ".";
-        } else {
-            StringBuilder sb = new StringBuilder("Expenses that matched your search word '" + searchWord + "':");
-            for (Expense expense : expenses) {
-                sb.append("\n - ").append(expense.toString());
-            }
-            return sb.toString();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        handleSearch(searchWord, 0, NO_LIMIT, toStream(buffer));
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lists a page of the expenses that match the provided search word, writing the rows as they are formatted.
+     *
+     * @param searchWord The word to search for in expense names.
+     * @param offset     The number of expenses to skip.
+     * @param limit      The maximum number of expenses to list.
+     * @param out        The stream to write the message to.
+     */
+    public void handleSearch(String searchWord, int offset, int limit, PrintStream out) {
+        ExpensePage page = expenseManager.getExpensesBySearchword(searchWord, offset, limit);
+        if (page.isEmpty()) {
+            out.print("There are no expenses that matched your search word: " + searchWord + ".");
+            return;
         }
+        out.print("Expenses that matched your search word '" + searchWord + "':");
+        writeRows(page, out);
     }
 
     /**
@@ -371,7 +514,7 @@ public class CommandHandler {
     }
 
     /**
-     * Sets a new base currency and converts all relevant data (budget, total spent, expenses) accordingly.
+     * Sets a new base currency. The budget, total spent and expenses are shown in the new currency from now on.
      *
      * @param baseCurrency The new base currency as a string (e.g., "USD", "SGD").
      * @return A confirmation message displaying the new base currency.
@@ -385,19 +528,7 @@ public class CommandHandler {
             throw new InvalidArgumentException(baseCurrency, "Base currency is not a valid currency.");
         }
 
-        // change budget
-        double currentBudget = expenseManager.getBudget();
-        expenseManager.setBudget(newBase.convert(currentBudget));
-
-        // change total spent
-        double currentTotalSpent = expenseManager.getTotalExpense();
-        expenseManager.setTotalExpense(newBase.convert(currentTotalSpent));
-
-        // change all expenses
-        for (Expense expense : expenseManager.getExpenses()) {
-            expense.setAmount(newBase.convert(expense.getAmount()));
-        }
-
+        // amounts are converted to the new base when read, so nothing is rewritten here
         expenseManager.setBaseCurrency(newBase);
 
         return "Current base is: " + newBase;
@@ -413,15 +544,9 @@ public class CommandHandler {
      */
     public String handleSetTime(String expenseName, String timestampStr)
             throws DateTimeParseException, InvalidArgumentException {
-        LocalDateTime timestamp = LocalDateTime.parse(timestampStr,
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        for (Expense expense : expenseManager.getExpenses()) {
-            if (expense.getName().equalsIgnoreCase(expenseName)) {
-                expense.setDateTime(timestamp);
-                return "Updated timestamp for \"" + expenseName + "\" to " + timestampStr + ".";
-            }
-        }
-        throw new InvalidArgumentException(expenseName, "Expense with name `" + expenseName + "` not found.");
+        LocalDateTime timestamp = Timestamp.parse(timestampStr);
+        expenseManager.setExpenseDateTime(expenseName, timestamp);
+        return "Updated timestamp for \"" + expenseName + "\" to " + timestampStr + ".";
     }
 
     /**
@@ -471,4 +596,57 @@ public class CommandHandler {
         expenseManager.editExpenseAmount(expenseName, amount);
         return "Successfully modified expense `" + expenseName + "` to have amount "+ amount + ".";
     }
+
+    /**
+     * Imports the expenses in a CSV file.
+     *
+     * @param path the path of the CSV file
+     * @return a message with the number of imported expenses and the rejected rows
+     * @throws InvalidArgumentException if the file cannot be read or has an invalid header
+     */
+    public String handleImportCsv(String path) throws InvalidArgumentException {
+        try {
+            return new CsvHandler().importCsv(path, expenseManager);
+        } catch (NoSuchFileException e) {
+            throw new InvalidArgumentException(path, "File not found.");
+        } catch (IOException | InvalidPathException e) {
+            throw new InvalidArgumentException(path, "Failed to read file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exports the expenses that match the given filters to a CSV or TSV file.
+     * Expenses are written straight from the shared snapshot of {@link ExpenseManager#getExpenses()}, without
+     * collecting the matches first.
+     *
+     * @param path       the path of the file
+     * @param category   the category to export, or {@code null} for all expenses
+     * @param startStr   the earliest timestamp to export in format yyyy-MM-dd HH:mm:ss, or {@code null}
+     * @param endStr     the latest timestamp to export in format yyyy-MM-dd HH:mm:ss, or {@code null}
+     * @param columnSpec the comma-separated columns to write, or {@code null} for all columns
+     * @return a message with the number of exported expenses
+     * @throws DateTimeParseException   if either timestamp is invalid
+     * @throws InvalidArgumentException if the category or a column does not exist, or the file cannot be written
+     */
+    public String handleExportCsv(String path, String category, String startStr, String endStr, String columnSpec)
+            throws InvalidArgumentException {
+        int categoryId = category == null ? Category.NO_ID : expenseManager.getCategoryId(category);
+        LocalDateTime start = startStr == null ? LocalDateTime.MIN : Timestamp.parse(startStr);
+        LocalDateTime end = endStr == null ? LocalDateTime.MAX : Timestamp.parse(endStr);
+        if (start.isAfter(end)) {
+            throw new InvalidArgumentException(endStr, "End time should not be before start time.");
+        }
+        int[] columns = columnSpec == null ? CsvHandler.allColumns() : CsvHandler.parseColumns(columnSpec);
+
+        int count;
+        try {
+            count = new CsvHandler().exportCsv(path, columns, expenseManager.getExpenses(), expense ->
+                    (categoryId == Category.NO_ID || expense.getCategoryId() == categoryId)
+                            && !expense.getDateTime().isBefore(start) && !expense.getDateTime().isAfter(end));
+        } catch (IOException | InvalidPathException e) {
+            throw new InvalidArgumentException(path, "Failed to write file: " + e.getMessage());
+        }
+        return "Exported " + count + (count == 1 ? " expense to " : " expenses to ")
+                + Path.of(path).toAbsolutePath() + ".";
+    }
 }
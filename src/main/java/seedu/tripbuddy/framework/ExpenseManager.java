@@ -5,29 +5,102 @@ import org.json.JSONObject;
 import seedu.tripbuddy.command.Command;
 import seedu.tripbuddy.dataclass.Currency;
 import seedu.tripbuddy.dataclass.Expense;
+import seedu.tripbuddy.dataclass.Money;
 import seedu.tripbuddy.exception.InvalidArgumentException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 /**
  * Has CRUD access to all user data.
+ *
+ * All methods are safe to call from multiple threads. Mutations take an exclusive lock, and queries take a shared
+ * lock; the budget and totals, which are plain fields, are first read optimistically and only locked if a write
+ * got in between. The lock is not reentrant: a method holding it only calls private helpers that expect it held.
+ * Recorded expenses are changed only through the methods here, which update the indexes and totals together with
+ * the expense; the {@link Expense} setters do not know about this class.
  */
 public class ExpenseManager {
 
+    /**
+     * Why an expense read from a file is not added, see {@link #addExpenses(List)}.
+     */
+    public enum Rejection {
+        EMPTY_NAME("Expense name should not be empty.", false),
+        DUPLICATE_NAME("Expense name already exists.", false),
+        AMOUNT_TOO_SMALL("Expense amount should be more than 0.", true),
+        AMOUNT_TOO_LARGE("Expense amount should be no more than " + Command.MAX_INPUT_VAL, true);
+
+        private final String reason;
+        /** Whether the message in a save file names the expense. */
+        private final boolean isNamed;
+
+        Rejection(String reason, boolean isNamed) {
+            this.reason = reason;
+            this.isNamed = isNamed;
+        }
+
+        /**
+         * Returns the reason, without the name of the expense.
+         *
+         * @return the reason
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Returns the message reported for a rejected expense in a save file.
+         *
+         * @param name the name of the expense
+         * @return the message
+         */
+        public String getMessage(String name) {
+            return isNamed ? '"' + name + "\": " + reason : reason;
+        }
+    }
+
     public static final int DEFAULT_BUDGET = 1000;
 
-    private static ExpenseManager instance = null;
+    /** Length of the name fragments kept in the search index. */
+    private static final int GRAM_LENGTH = 3;
+
+    private static volatile ExpenseManager instance = null;
 
-    private Currency baseCurrency;
-    private double budget;
-    private double totalExpense;
-    private final HashSet<String> categories = new HashSet<>();
-    private final ArrayList<Expense> expenses = new ArrayList<>();
+    private final StampedLock lock = new StampedLock();
 
+    /** Budget in cents of {@link #budgetCurrency}, see {@link Money}. */
+    private long budgetCents;
+    private Currency budgetCurrency;
+    /** Sum of all expense amounts in cents, per currency the amounts were entered in. */
+    private final long[] totalCents = new long[Currency.values().length];
+    private final CategoryRegistry categories = new CategoryRegistry();
+    /** Expenses in insertion order, keyed by {@link #toKey(String)} of their names. */
+    private LinkedHashMap<String, Expense> expenses = new LinkedHashMap<>();
+    /** Immutable copy of {@link #expenses} shared by readers; {@code null} once the set of expenses changes. */
+    private volatile List<Expense> expenseSnapshot = null;
+    /** Timestamps mapped to the expenses recorded at that time, ordered by time. */
+    private final TreeMap<LocalDateTime, LinkedHashSet<Expense>> timeIndex = new TreeMap<>();
+    /** Amounts in SGD cents mapped to the expenses with that amount, ordered by amount. */
+    private final TreeMap<Double, LinkedHashSet<Expense>> amountIndex = new TreeMap<>();
+    /** Version of the rate table the amount index was built with. */
+    private int amountIndexRateVersion = Currency.getRateTableVersion();
+    /** Trigrams mapped to the keys of the expense names containing them, in insertion order. */
+    private final HashMap<String, LinkedHashSet<String>> gramIndex = new HashMap<>();
+    /** Whether {@link #gramIndex} was left out of date by a bulk load, to be rebuilt by the next search. */
+    private boolean isGramIndexStale = false;
 
     /**
      * Private constructor for singleton pattern. Initializes with a given budget.
@@ -36,9 +109,8 @@ public class ExpenseManager {
      */
     private ExpenseManager(double budget) {
         assert budget > 0 : "Budget must be positive";
-        this.budget = budget;
-        this.totalExpense = 0;
-        this.baseCurrency = Currency.SGD;
+        Currency.setBaseCurrency(Currency.SGD);
+        setBudget(budget);
         clearExpensesAndCategories();
     }
 
@@ -48,10 +120,17 @@ public class ExpenseManager {
      * @return The singleton instance of {@code ExpenseManager}.
      */
     public static ExpenseManager getInstance() {
-        if (instance == null) {
-            instance = new ExpenseManager(DEFAULT_BUDGET);
+        ExpenseManager ret = instance;
+        if (ret == null) {
+            synchronized (ExpenseManager.class) {
+                ret = instance;
+                if (ret == null) {
+                    ret = new ExpenseManager(DEFAULT_BUDGET);
+                    instance = ret;
+                }
+            }
         }
-        return instance;
+        return ret;
     }
 
     /**
@@ -61,11 +140,279 @@ public class ExpenseManager {
      * @return The singleton instance of {@code ExpenseManager}.
      */
     public static ExpenseManager getInstance(double budget) {
-        if (instance == null) {
-            instance = new ExpenseManager(budget);
+        ExpenseManager ret = getInstance();
+        ret.setBudget(budget);
+        return ret;
+    }
+
+    /**
+     * Converts a read lock into the write lock, waiting for the other readers to leave if it cannot be converted
+     * at once. In that case another writer may get in between, so the caller must check its state again.
+     *
+     * @param stamp The stamp of the read lock.
+     * @return The stamp of the write lock.
+     */
+    private long toWriteLock(long stamp) {
+        long writeStamp = lock.tryConvertToWriteLock(stamp);
+        if (writeStamp == 0) {
+            lock.unlockRead(stamp);
+            writeStamp = lock.writeLock();
+        }
+        return writeStamp;
+    }
+
+    /**
+     * Runs a query without locking, and runs it again under the read lock if a write happened meanwhile.
+     * The query must not modify any state, and must only read plain fields: a collection traversed while a writer
+     * changes it can return a wrong result that still passes validation through a stale reference.
+     *
+     * @param query The query to run.
+     * @param <T>   The result type of the query.
+     * @return The result of the query.
+     */
+    private <T> T readOptimistically(Supplier<T> query) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T ret = query.get();
+            if (lock.validate(stamp)) {
+                return ret;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Folds an expense name into the key used by the name index.
+     * All name lookups are case-insensitive and go through this method.
+     *
+     * @param name The expense name.
+     * @return The lookup key of the name.
+     */
+    private static String toKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds an expense by name, ignoring case.
+     *
+     * @param expenseName The expense name.
+     * @return The matching expense, or {@code null} if there is none.
+     */
+    private Expense findExpense(String expenseName) {
+        return expenses.get(toKey(expenseName));
+    }
+
+    /**
+     * Records an expense under its category, creating the category if needed.
+     * The category is looked up by name and replaced by the shared instance from the registry, which carries its id.
+     * Does nothing if the expense has no category.
+     *
+     * @param expense The expense to index.
+     */
+    private void indexCategory(Expense expense) {
+        String category = expense.getCategory();
+        if (category != null) {
+            int id = categories.register(category);
+            expense.setCategory(categories.getCategory(id));
+            categories.addMember(id, expense);
+        }
+    }
+
+    /**
+     * Removes an expense from the members of its current category.
+     * The category itself is kept even if it becomes empty.
+     *
+     * @param expense The expense to unindex.
+     */
+    private void unindexCategory(Expense expense) {
+        if (expense.belongsToCategory()) {
+            categories.removeMember(expense.getCategoryId(), expense);
+        }
+    }
+
+    /**
+     * Records a name key under every trigram it contains.
+     *
+     * @param key The key of the expense name.
+     */
+    private void indexGrams(String key) {
+        if (isGramIndexStale) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+            gramIndex.computeIfAbsent(key.substring(i, i + GRAM_LENGTH), k -> new LinkedHashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Removes a name key from the search index, dropping trigrams that no name contains any more.
+     *
+     * @param key The key of the expense name.
+     */
+    private void unindexGrams(String key) {
+        if (isGramIndexStale) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+            String gram = key.substring(i, i + GRAM_LENGTH);
+            LinkedHashSet<String> keys = gramIndex.get(gram);
+            if (keys == null) {
+                continue;
+            }
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                gramIndex.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Acquires the read lock for a search. If a bulk load left the search index out of date, the lock is converted
+     * to the write lock and the index is rebuilt first; the search then runs under the write lock.
+     *
+     * @return The stamp to pass to {@link StampedLock#unlock(long)}.
+     */
+    private long lockGramIndex() {
+        long stamp = lock.readLock();
+        if (isGramIndexStale) {
+            stamp = toWriteLock(stamp);
+            if (isGramIndexStale) {
+                isGramIndexStale = false;
+                gramIndex.clear();
+                for (String key : expenses.keySet()) {
+                    indexGrams(key);
+                }
+            }
+        }
+        return stamp;
+    }
+
+    /**
+     * Records an expense under its timestamp in the time index.
+     *
+     * @param expense The expense to index.
+     */
+    private void indexDateTime(Expense expense) {
+        timeIndex.computeIfAbsent(expense.getDateTime(), k -> new LinkedHashSet<>()).add(expense);
+    }
+
+    /**
+     * Removes an expense from the time index, dropping the timestamp once no expense uses it.
+     *
+     * @param expense  The expense to unindex.
+     * @param dateTime The timestamp the expense is indexed under.
+     */
+    private void unindexDateTime(Expense expense, LocalDateTime dateTime) {
+        LinkedHashSet<Expense> bucket = timeIndex.get(dateTime);
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(expense);
+        if (bucket.isEmpty()) {
+            timeIndex.remove(dateTime);
+        }
+    }
+
+    /**
+     * Changes the timestamp of a recorded expense and re-keys it in the time index.
+     * The caller must hold the write lock.
+     *
+     * @param expense  The expense whose timestamp changes.
+     * @param dateTime The new timestamp.
+     */
+    private void changeDateTime(Expense expense, LocalDateTime dateTime) {
+        unindexDateTime(expense, expense.getDateTime());
+        expense.setDateTime(dateTime);
+        indexDateTime(expense);
+    }
+
+    /**
+     * Rebuilds the amount index if the rate table changed since it was built.
+     * Amounts in different currencies are ordered by their SGD value, which only changes with the rate table.
+     */
+    private void syncAmountIndex() {
+        if (amountIndexRateVersion == Currency.getRateTableVersion()) {
+            return;
+        }
+        amountIndex.clear();
+        amountIndexRateVersion = Currency.getRateTableVersion();
+        for (Expense expense : expenses.values()) {
+            indexAmount(expense);
+        }
+    }
+
+    /**
+     * Acquires the read lock for a query on the amount index. If the rate table changed since the index was built,
+     * the lock is converted to the write lock and the index is rebuilt first; the query then runs under the write
+     * lock.
+     *
+     * @return The stamp to pass to {@link StampedLock#unlock(long)}.
+     */
+    private long lockAmountIndex() {
+        long stamp = lock.readLock();
+        if (amountIndexRateVersion != Currency.getRateTableVersion()) {
+            stamp = toWriteLock(stamp);
+            syncAmountIndex();
+        }
+        return stamp;
+    }
+
+    /**
+     * Records an expense under its amount in the amount index.
+     *
+     * @param expense The expense to index.
+     */
+    private void indexAmount(Expense expense) {
+        syncAmountIndex();
+        double key = expense.getCurrency().toSgdCents(expense.getOriginalAmountCents());
+        amountIndex.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(expense);
+    }
+
+    /**
+     * Removes an expense from the amount index, dropping the amount once no expense uses it.
+     *
+     * @param expense     The expense to unindex.
+     * @param amountCents The amount in cents the expense is indexed under.
+     * @param currency    The currency of {@code amountCents}.
+     */
+    private void unindexAmount(Expense expense, long amountCents, Currency currency) {
+        syncAmountIndex();
+        double key = currency.toSgdCents(amountCents);
+        LinkedHashSet<Expense> bucket = amountIndex.get(key);
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(expense);
+        if (bucket.isEmpty()) {
+            amountIndex.remove(key);
+        }
+    }
+
+    /**
+     * Changes the amount of a recorded expense to an amount in the base currency, re-keys it in the amount index
+     * and updates the totals. The caller must hold the write lock.
+     *
+     * @param expense     The expense whose amount changes.
+     * @param amountCents The new amount in cents of the base currency.
+     */
+    private void changeAmount(Expense expense, long amountCents) {
+        long oldAmountCents = expense.getOriginalAmountCents();
+        Currency oldCurrency = expense.getCurrency();
+        unindexAmount(expense, oldAmountCents, oldCurrency);
+        expense.setAmountCents(amountCents);
+        indexAmount(expense);
+        totalCents[oldCurrency.ordinal()] -= oldAmountCents;
+        totalCents[expense.getCurrency().ordinal()] += expense.getOriginalAmountCents();
+        if (expense.belongsToCategory()) {
+            int id = expense.getCategoryId();
+            categories.adjustTotal(id, oldCurrency, -oldAmountCents);
+            categories.adjustTotal(id, expense.getCurrency(), expense.getOriginalAmountCents());
         }
-        instance.setBudget(budget);
-        return instance;
     }
 
     /**
@@ -74,90 +421,213 @@ public class ExpenseManager {
      * @return The base {@link Currency}.
      */
     public Currency getBaseCurrency() {
-        return baseCurrency;
+        return Currency.getBaseCurrency();
     }
 
     /**
-     * Sets the base currency.
+     * Sets the base currency. Amounts are kept in the currency they were entered in and converted when read,
+     * so this does not touch any expense.
      *
      * @param newBaseCurrency The new base {@link Currency}.
      */
     public void setBaseCurrency(Currency newBaseCurrency) {
-        baseCurrency = newBaseCurrency;
-        Currency.setBaseCurrency(baseCurrency);
+        long stamp = lock.writeLock();
+        try {
+            Currency.setBaseCurrency(newBaseCurrency);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Gets the current budget.
+     * Gets the current budget in the base currency.
      *
      * @return The current budget amount.
      */
     public double getBudget() {
-        return budget;
+        return readOptimistically(() -> Money.toAmount(budgetCurrency.toBaseCents(budgetCents)));
     }
 
     /**
-     * Gets the total amount spent.
+     * Gets the total amount spent in the base currency.
      *
      * @return Total expense amount.
      */
     public double getTotalExpense() {
-        return totalExpense;
+        return readOptimistically(() -> Money.toAmount(Currency.sumToBaseCents(totalCents)));
     }
 
     /**
-     * Sets the total amount spent.
+     * Gets the remaining budget in the base currency.
      *
-     * @param totalExpense New total expense value.
+     * @return Budget remaining after subtracting total expenses.
      */
-    public void setTotalExpense(double totalExpense) {
-        this.totalExpense = totalExpense;
+    public double getRemainingBudget() {
+        return readOptimistically(() ->
+                Money.toAmount(budgetCurrency.toBaseCents(budgetCents) - Currency.sumToBaseCents(totalCents)));
     }
 
     /**
-     * Gets the remaining budget.
+     * Gets the list of category names, in creation order.
      *
-     * @return Budget remaining after subtracting total expenses.
+     * @return An unmodifiable list of categories.
      */
-    public double getRemainingBudget() {
-        return budget - totalExpense;
+    public List<String> getCategories() {
+        long stamp = lock.readLock();
+        try {
+            return categories.getNames();
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
-     * Gets the list of category names.
+     * Gets the id of a category, which stays the same until the categories are cleared.
+     * The expenses in the category carry the same id, see {@link Expense#getCategoryId()}.
      *
-     * @return A list of categories.
+     * @param category Category name.
+     * @return The id of the category.
+     * @throws InvalidArgumentException If category doesn't exist.
      */
-    public List<String> getCategories() {
-        return categories.stream().toList();
+    public int getCategoryId(String category) throws InvalidArgumentException {
+        long stamp = lock.readLock();
+        try {
+            int id = categories.getId(category);
+            if (id == CategoryRegistry.NO_ID) {
+                throw new InvalidArgumentException(category, "Category name not found.");
+            }
+            return id;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets the number of expenses under a category.
+     *
+     * @param category Category name.
+     * @return The number of expenses in that category.
+     * @throws InvalidArgumentException If category doesn't exist.
+     */
+    public int getCategoryCount(String category) throws InvalidArgumentException {
+        long stamp = lock.readLock();
+        try {
+            int id = categories.getId(category);
+            if (id == CategoryRegistry.NO_ID) {
+                throw new InvalidArgumentException(category, "Category name not found.");
+            }
+            return categories.getCount(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
-     * Gets a list of all recorded expenses.
+     * Gets the total amount of the expenses under a category.
      *
-     * @return A copy of the expense list.
+     * @param category Category name.
+     * @return The total amount spent in that category.
+     * @throws InvalidArgumentException If category doesn't exist.
+     */
+    public double getCategoryTotal(String category) throws InvalidArgumentException {
+        long stamp = lock.readLock();
+        try {
+            int id = categories.getId(category);
+            if (id == CategoryRegistry.NO_ID) {
+                throw new InvalidArgumentException(category, "Category name not found.");
+            }
+            return Money.toAmount(categories.getTotalCents(id));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets a list of all recorded expenses, in insertion order.
+     * The list is an immutable snapshot that is shared by all callers until an expense is added or removed,
+     * so repeated calls do not copy the expenses again.
+     *
+     * @return An unmodifiable list of the expenses.
      */
     public List<Expense> getExpenses() {
-        return List.copyOf(expenses);
+        List<Expense> ret = expenseSnapshot;
+        if (ret != null) {
+            return ret;
+        }
+        long stamp = lock.readLock();
+        try {
+            return getSnapshot();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets a page of the recorded expenses, in insertion order.
+     * The page is a view of the snapshot returned by {@link #getExpenses()}, so nothing is copied.
+     *
+     * @param offset The number of expenses to skip.
+     * @param limit  The maximum number of expenses on the page.
+     * @return The page of expenses, with the total amount spent.
+     */
+    public ExpensePage getExpenses(int offset, int limit) {
+        long stamp = lock.readLock();
+        try {
+            List<Expense> all = getSnapshot();
+            int from = Math.min(offset, all.size());
+            int to = (int) Math.min((long) from + limit, all.size());
+            return new ExpensePage(all.subList(from, to), from, all.size(), Currency.sumToBaseCents(totalCents));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the snapshot of the expenses, building it if needed. The caller must hold the lock.
+     */
+    private List<Expense> getSnapshot() {
+        // writers are excluded here, so the snapshot cannot go stale before it is published
+        List<Expense> ret = expenseSnapshot;
+        if (ret == null) {
+            ret = List.copyOf(expenses.values());
+            expenseSnapshot = ret;
+        }
+        return ret;
     }
 
     /**
      * Clears all expenses and categories while retaining budget and currency.
      */
     public void clearExpensesAndCategories() {
-        expenses.clear();
-        categories.clear();
-        totalExpense = 0;
+        long stamp = lock.writeLock();
+        try {
+            expenses.clear();
+            expenseSnapshot = null;
+            categories.clear();
+            timeIndex.clear();
+            amountIndex.clear();
+            gramIndex.clear();
+            isGramIndexStale = false;
+            Arrays.fill(totalCents, 0);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Sets the user-defined budget.
+     * Sets the user-defined budget in the base currency, rounded to the nearest cent.
      *
      * @param budget The budget amount to set.
      */
     public void setBudget(double budget) {
-        assert budget > 0 : "Budget must be a positive integer";
-        this.budget = budget;
+        long stamp = lock.writeLock();
+        try {
+            assert budget > 0 : "Budget must be a positive integer";
+            this.budgetCents = Money.toCents(budget);
+            this.budgetCurrency = Currency.getBaseCurrency();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -167,13 +637,18 @@ public class ExpenseManager {
      * @throws InvalidArgumentException If the name is empty or already exists.
      */
     public void createCategory(String categoryName) throws InvalidArgumentException {
-        if (categoryName.isEmpty()) {
-            throw new InvalidArgumentException("", "Category name should not be empty.");
-        }
-        if (categories.contains(categoryName)) {
-            throw new InvalidArgumentException(categoryName, "Category name already exists.");
+        long stamp = lock.writeLock();
+        try {
+            if (categoryName.isEmpty()) {
+                throw new InvalidArgumentException("", "Category name should not be empty.");
+            }
+            if (categories.contains(categoryName)) {
+                throw new InvalidArgumentException(categoryName, "Category name already exists.");
+            }
+            categories.register(categoryName);
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        categories.add(categoryName);
     }
 
     /**
@@ -184,20 +659,19 @@ public class ExpenseManager {
      * @throws InvalidArgumentException If name is invalid or duplicate, or amount is invalid.
      */
     public void addExpense(String name, double amount) throws InvalidArgumentException {
-        assert amount > 0 : "Amount must be positive";
-        if (name.isEmpty()) {
-            throw new InvalidArgumentException("", "Expense name should not be empty.");
-        }
-
-        // check whether the expense name is already used
-        for (Expense expense : expenses) {
-            if (expense.getName().equals(name)) {
+        long stamp = lock.writeLock();
+        try {
+            assert amount > 0 : "Amount must be positive";
+            if (name.isEmpty()) {
+                throw new InvalidArgumentException("", "Expense name should not be empty.");
+            }
+            if (findExpense(name) != null) {
                 throw new InvalidArgumentException(name, "Expense name already exists.");
             }
+            insert(new Expense(name, amount));
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        Expense expense = new Expense(name, amount);
-        expenses.add(expense);
-        totalExpense += amount;
     }
 
     /**
@@ -209,22 +683,23 @@ public class ExpenseManager {
      * @throws InvalidArgumentException If name or amount is invalid.
      */
     public void addExpense(String name, double amount, String categoryName) throws InvalidArgumentException {
-        assert amount > 0 : "Amount must be positive";
-        if (name.isEmpty()) {
-            throw new InvalidArgumentException("", "Expense name should not be empty.");
-        }
-        // check whether the expense name is already used
-        for (Expense expense : expenses) {
-            if (expense.getName().equals(name)) {
+        long stamp = lock.writeLock();
+        try {
+            assert amount > 0 : "Amount must be positive";
+            if (name.isEmpty()) {
+                throw new InvalidArgumentException("", "Expense name should not be empty.");
+            }
+            if (findExpense(name) != null) {
                 throw new InvalidArgumentException(name, "Expense name already exists.");
             }
+            if (categoryName.isEmpty()) {
+                throw new InvalidArgumentException("", "Category name should not be empty.");
+            }
+            // the category is created by insert if it does not exist
+            insert(new Expense(name, amount, categoryName));
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        if (!categories.contains(categoryName)) {
-            createCategory(categoryName);
-        }
-        Expense expense = new Expense(name, amount, categoryName);
-        expenses.add(expense);
-        totalExpense += amount;
     }
 
     /**
@@ -234,46 +709,153 @@ public class ExpenseManager {
      * @throws JSONException If any data is invalid or duplicate.
      */
     public void addExpense(JSONObject expObj) throws JSONException {
-        Expense expense = Expense.fromJSON(expObj);
-        String name = expense.getName();
-        if (name.isEmpty()) {
-            throw new JSONException("Expense name should not be empty.");
+        long stamp = lock.writeLock();
+        try {
+            Expense expense = Expense.fromJSON(expObj);
+            Rejection rejection = checkLoadedExpense(expense, findExpense(expense.getName()) != null);
+            if (rejection != null) {
+                throw new JSONException(rejection.getMessage(expense.getName()));
+            }
+            insert(expense);
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        for (Expense exp : expenses) {
-            if (exp.getName().equals(name)) {
-                throw new JSONException("Expense name already exists.");
+    }
+
+    /**
+     * Adds a fully built expense, keeping its currency, category and timestamp.
+     * The category is created if it does not exist.
+     *
+     * @param expense The expense to add.
+     * @throws InvalidArgumentException If the name is empty or duplicate, or the amount is out of range.
+     */
+    public void addExpense(Expense expense) throws InvalidArgumentException {
+        long stamp = lock.writeLock();
+        try {
+            String name = expense.getName();
+            if (name.isEmpty()) {
+                throw new InvalidArgumentException("", "Expense name should not be empty.");
+            }
+            if (findExpense(name) != null) {
+                throw new InvalidArgumentException(name, "Expense name already exists.");
+            }
+            double amount = Money.toAmount(expense.getOriginalAmountCents());
+            if (amount <= 0) {
+                throw new InvalidArgumentException(name, "Expense amount should be more than 0.");
+            }
+            if (amount > Command.MAX_INPUT_VAL) {
+                throw new InvalidArgumentException(name, "Expense amount should be no more than " +
+                        Command.MAX_INPUT_VAL);
             }
+            insert(expense);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Checks an expense read from a save file.
+     *
+     * @param expense     The expense to check.
+     * @param isDuplicate Whether an expense with the same name is already recorded.
+     * @return Why the expense cannot be added, or {@code null} if it can.
+     */
+    private static Rejection checkLoadedExpense(Expense expense, boolean isDuplicate) {
+        if (expense.getName().isEmpty()) {
+            return Rejection.EMPTY_NAME;
+        }
+        if (isDuplicate) {
+            return Rejection.DUPLICATE_NAME;
         }
-        double amount = expense.getAmount();
+        double amount = Money.toAmount(expense.getOriginalAmountCents());
         if (amount <= 0) {
-            throw new JSONException('"' + name + "\": Expense amount should be more than 0.");
+            return Rejection.AMOUNT_TOO_SMALL;
         }
         if (amount > Command.MAX_INPUT_VAL) {
-            throw new JSONException('"' + name + "\": Expense amount should be no more than " +
-                    Command.MAX_INPUT_VAL);
+            return Rejection.AMOUNT_TOO_LARGE;
         }
+        return null;
+    }
 
-        String categoryName = expense.getCategory();
-        if (categoryName != null) {
-            categories.add(categoryName);
+    /**
+     * Adds a batch of expenses read from a save file, under a single write lock so that readers see either
+     * none or all of the accepted ones.
+     * The whole batch is checked before anything is added, against the recorded names and a hash set of the
+     * names accepted so far, so each expense is rejected exactly as by {@link #addExpense(JSONObject)}
+     * in order. The name map is sized for the batch if it is empty, and the search index is left to be
+     * rebuilt by the next search instead of being updated expense by expense.
+     *
+     * @param batch The expenses to add, in order.
+     * @return For each expense, {@code null} if it was added, or why it was rejected.
+     */
+    public Rejection[] addExpenses(List<Expense> batch) {
+        Rejection[] errors = new Rejection[batch.size()];
+        HashSet<String> acceptedKeys = new HashSet<>(capacityFor(batch.size()));
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Expense expense = batch.get(i);
+                String key = toKey(expense.getName());
+                boolean isDuplicate = expenses.containsKey(key) || acceptedKeys.contains(key);
+                errors[i] = checkLoadedExpense(expense, isDuplicate);
+                if (errors[i] == null) {
+                    acceptedKeys.add(key);
+                }
+            }
+            if (expenses.isEmpty()) {
+                expenses = new LinkedHashMap<>(capacityFor(acceptedKeys.size()));
+            }
+            if (!acceptedKeys.isEmpty()) {
+                isGramIndexStale = true;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (errors[i] == null) {
+                    insert(batch.get(i));
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        return errors;
+    }
+
+    /**
+     * Returns the initial capacity of a hash map that holds {@code size} entries without resizing.
+     */
+    private static int capacityFor(int size) {
+        return (int) Math.ceil(size / 0.75);
+    }
 
-        expenses.add(expense);
-        totalExpense += amount;
+    /**
+     * Records a new expense in the name map, the indexes and the totals.
+     * The caller must hold the write lock and have checked that the name is free.
+     *
+     * @param expense The expense to record.
+     */
+    private void insert(Expense expense) {
+        String key = toKey(expense.getName());
+        expenses.put(key, expense);
+        expenseSnapshot = null;
+        indexGrams(key);
+        indexCategory(expense);
+        indexDateTime(expense);
+        indexAmount(expense);
+        totalCents[expense.getCurrency().ordinal()] += expense.getOriginalAmountCents();
     }
 
     /**
-     * Retrieves an expense by its index.
+     * Retrieves an expense by its index in insertion order.
      *
      * @param id Index of the expense.
      * @return The expense at the given index.
      * @throws InvalidArgumentException If index is out of bounds.
      */
     public Expense getExpense(int id) throws InvalidArgumentException {
-        if (id < 0 || id >= expenses.size()) {
+        List<Expense> snapshot = getExpenses();
+        if (id < 0 || id >= snapshot.size()) {
             throw new InvalidArgumentException(Integer.toString(id), "id index out of bound");
         }
-        return expenses.get(id);
+        return snapshot.get(id);
     }
 
     /**
@@ -283,14 +865,22 @@ public class ExpenseManager {
      * @throws InvalidArgumentException If expense name does not exist.
      */
     public void deleteExpense(String expenseName) throws InvalidArgumentException {
-        for (Expense expense : expenses) {
-            if (expense.getName().equalsIgnoreCase(expenseName)) {
-                expenses.remove(expense);
-                totalExpense -= expense.getAmount();
-                return;
+        long stamp = lock.writeLock();
+        try {
+            String key = toKey(expenseName);
+            Expense expense = expenses.remove(key);
+            if (expense == null) {
+                throw new InvalidArgumentException(expenseName, "Expense name not found.");
             }
+            expenseSnapshot = null;
+            unindexGrams(key);
+            unindexCategory(expense);
+            unindexDateTime(expense, expense.getDateTime());
+            unindexAmount(expense, expense.getOriginalAmountCents(), expense.getCurrency());
+            totalCents[expense.getCurrency().ordinal()] -= expense.getOriginalAmountCents();
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        throw new InvalidArgumentException(expenseName, "Expense name not found.");
     }
 
     /**
@@ -301,17 +891,39 @@ public class ExpenseManager {
      * @throws InvalidArgumentException If category doesn't exist.
      */
     public List<Expense> getExpensesByCategory(String category) throws InvalidArgumentException {
-        if (!categories.contains(category)) {
-            throw new InvalidArgumentException(category, "Category name not found.");
+        long stamp = lock.readLock();
+        try {
+            int id = categories.getId(category);
+            if (id == CategoryRegistry.NO_ID) {
+                throw new InvalidArgumentException(category, "Category name not found.");
+            }
+            return categories.getMembers(id);
+        } finally {
+            lock.unlockRead(stamp);
         }
+    }
 
-        ArrayList<Expense> ret = new ArrayList<>();
-        for (Expense expense : expenses) {
-            if (category.equals(expense.getCategory())) {
-                ret.add(expense);
+    /**
+     * Gets a page of the expenses under a specific category, in the order they joined it.
+     *
+     * @param category Category name.
+     * @param offset   The number of expenses to skip.
+     * @param limit    The maximum number of expenses on the page.
+     * @return The page of expenses in that category.
+     * @throws InvalidArgumentException If category doesn't exist.
+     */
+    public ExpensePage getExpensesByCategory(String category, int offset, int limit)
+            throws InvalidArgumentException {
+        long stamp = lock.readLock();
+        try {
+            int id = categories.getId(category);
+            if (id == CategoryRegistry.NO_ID) {
+                throw new InvalidArgumentException(category, "Category name not found.");
             }
+            return categories.getMembers(id, offset, limit);
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return ret;
     }
 
     /**
@@ -322,20 +934,24 @@ public class ExpenseManager {
      * @throws InvalidArgumentException If the expense doesn't exist.
      */
     public void setExpenseCategory(String expenseName, String category) throws InvalidArgumentException {
-        if (expenseName.isEmpty()) {
-            throw new InvalidArgumentException("", "Expense name should not be empty.");
-        }
-        if (category.isEmpty()) {
-            throw new InvalidArgumentException("", "Category name should not be empty.");
-        }
-        for (Expense expense : expenses) {
-            if (expense.getName().equalsIgnoreCase(expenseName)) {
-                expense.setCategory(category);
-                categories.add(category);
-                return;
+        long stamp = lock.writeLock();
+        try {
+            if (expenseName.isEmpty()) {
+                throw new InvalidArgumentException("", "Expense name should not be empty.");
+            }
+            if (category.isEmpty()) {
+                throw new InvalidArgumentException("", "Category name should not be empty.");
             }
+            Expense expense = findExpense(expenseName);
+            if (expense == null) {
+                throw new InvalidArgumentException(expenseName, "Expense name not found.");
+            }
+            unindexCategory(expense);
+            expense.setCategory(category);
+            indexCategory(expense);
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        throw new InvalidArgumentException(expenseName, "Expense name not found.");
     }
 
     /**
@@ -345,16 +961,15 @@ public class ExpenseManager {
      * @throws InvalidArgumentException If there are no expenses.
      */
     public Expense getMaxExpense() throws InvalidArgumentException {
-        if (expenses.isEmpty()) {
-            throw new InvalidArgumentException("No expenses available");
-        }
-        Expense maxExpense = expenses.get(0);
-        for (Expense expense : expenses) {
-            if (expense.getAmount() > maxExpense.getAmount()) {
-                maxExpense = expense;
+        long stamp = lockAmountIndex();
+        try {
+            if (amountIndex.isEmpty()) {
+                throw new InvalidArgumentException("No expenses available");
             }
+            return amountIndex.lastEntry().getValue().iterator().next();
+        } finally {
+            lock.unlock(stamp);
         }
-        return maxExpense;
     }
 
     /**
@@ -364,61 +979,185 @@ public class ExpenseManager {
      * @throws InvalidArgumentException If there are no expenses.
      */
     public Expense getMinExpense() throws InvalidArgumentException {
-        if (expenses.isEmpty()) {
-            throw new InvalidArgumentException("No expenses available");
+        long stamp = lockAmountIndex();
+        try {
+            if (amountIndex.isEmpty()) {
+                throw new InvalidArgumentException("No expenses available");
+            }
+            return amountIndex.firstEntry().getValue().iterator().next();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    /**
+     * Gets up to {@code n} expenses with the highest amounts, from the highest down.
+     *
+     * @param n The maximum number of expenses to return.
+     * @return The expenses with the highest amounts.
+     * @throws InvalidArgumentException If there are no expenses.
+     */
+    public List<Expense> getTopExpenses(int n) throws InvalidArgumentException {
+        assert n > 0 : "Number of expenses must be positive";
+        long stamp = lockAmountIndex();
+        try {
+            if (amountIndex.isEmpty()) {
+                throw new InvalidArgumentException("No expenses available");
+            }
+            return takeExpenses(amountIndex.descendingMap().values(), n);
+        } finally {
+            lock.unlock(stamp);
         }
-        Expense minExpense = expenses.get(0);
-        for (Expense expense : expenses) {
-            if (expense.getAmount() < minExpense.getAmount()) {
-                minExpense = expense;
+    }
+
+    /**
+     * Gets up to {@code n} expenses with the lowest amounts, from the lowest up.
+     *
+     * @param n The maximum number of expenses to return.
+     * @return The expenses with the lowest amounts.
+     * @throws InvalidArgumentException If there are no expenses.
+     */
+    public List<Expense> getBottomExpenses(int n) throws InvalidArgumentException {
+        assert n > 0 : "Number of expenses must be positive";
+        long stamp = lockAmountIndex();
+        try {
+            if (amountIndex.isEmpty()) {
+                throw new InvalidArgumentException("No expenses available");
+            }
+            return takeExpenses(amountIndex.values(), n);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    /**
+     * Collects the first {@code n} expenses from ordered buckets of the amount index.
+     *
+     * @param buckets The buckets in the order to take expenses from.
+     * @param n       The maximum number of expenses to collect.
+     * @return The collected expenses.
+     */
+    private static List<Expense> takeExpenses(Collection<LinkedHashSet<Expense>> buckets, int n) {
+        ArrayList<Expense> ret = new ArrayList<>();
+        for (LinkedHashSet<Expense> bucket : buckets) {
+            for (Expense expense : bucket) {
+                if (ret.size() == n) {
+                    return ret;
+                }
+                ret.add(expense);
             }
         }
-        return minExpense;
+        return ret;
     }
 
     /**
-     * Filters expenses within the given date range.
+     * Filters expenses within the given date range, inclusive, in timestamp order.
      *
      * @param start Start datetime.
      * @param end   End datetime.
      * @return List of expenses within the range.
      */
     public List<Expense> getExpensesByDateRange(LocalDateTime start, LocalDateTime end) {
-        ArrayList<Expense> filteredExpenses = new ArrayList<>();
-        for (Expense expense : expenses) {
-            LocalDateTime expenseDateTime = expense.getDateTime();
-            if ((expenseDateTime.isEqual(start) || expenseDateTime.isAfter(start))
-                    && (expenseDateTime.isEqual(end) || expenseDateTime.isBefore(end))) {
-                filteredExpenses.add(expense);
+        return getExpensesByDateRange(start, end, 0, Integer.MAX_VALUE).expenses();
+    }
+
+    /**
+     * Gets a page of the expenses within the given date range, inclusive, in timestamp order.
+     * Every match is visited to count and sum it, but only those on the page are collected.
+     *
+     * @param start  Start datetime.
+     * @param end    End datetime.
+     * @param offset The number of expenses to skip.
+     * @param limit  The maximum number of expenses on the page.
+     * @return The page of expenses within the range.
+     */
+    public ExpensePage getExpensesByDateRange(LocalDateTime start, LocalDateTime end, int offset, int limit) {
+        long stamp = lock.readLock();
+        try {
+            ExpensePage.Builder page = new ExpensePage.Builder(offset, limit);
+            if (!start.isAfter(end)) {
+                for (LinkedHashSet<Expense> bucket : timeIndex.subMap(start, true, end, true).values()) {
+                    for (Expense expense : bucket) {
+                        page.add(expense);
+                    }
+                }
             }
+            return page.build();
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return filteredExpenses;
     }
 
     /**
      * Replaces the current categories with a loaded set.
+     * Categories that still have expenses are kept so that every expense stays indexed.
      *
      * @param loadedCategories Categories to load into memory.
      */
     public void setCategories(Set<String> loadedCategories) {
-        categories.clear();
-        categories.addAll(loadedCategories);
+        long stamp = lock.writeLock();
+        try {
+            for (String category : List.copyOf(categories.getNames())) {
+                int id = categories.getId(category);
+                if (categories.getCount(id) == 0) {
+                    categories.remove(id);
+                }
+            }
+            for (String category : loadedCategories) {
+                categories.register(category);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Retrieves expenses whose names contain the given search word.
+     * Retrieves expenses whose names contain the given search word, ignoring case.
      *
      * @param searchword The keyword to search in expense names.
-     * @return List of matching expenses.
+     * @return List of matching expenses, in insertion order.
      */
     public List<Expense> getExpensesBySearchword(String searchword) {
-        ArrayList<Expense> matchingExpenses = new ArrayList<>();
-        for (Expense expense : expenses) {
-            if (expense.getName().toLowerCase().contains(searchword.toLowerCase())) {
-                matchingExpenses.add(expense);
+        return getExpensesBySearchword(searchword, 0, Integer.MAX_VALUE).expenses();
+    }
+
+    /**
+     * Retrieves a page of the expenses whose names contain the given search word, ignoring case.
+     * Search words of at least {@value #GRAM_LENGTH} characters only check the names sharing the
+     * rarest trigram of the search word; shorter ones scan the already lower-cased name keys.
+     * Every candidate is checked to count the matches, but only those on the page are collected.
+     *
+     * @param searchword The keyword to search in expense names.
+     * @param offset     The number of matches to skip.
+     * @param limit      The maximum number of matches on the page.
+     * @return The page of matching expenses, in insertion order.
+     */
+    public ExpensePage getExpensesBySearchword(String searchword, int offset, int limit) {
+        long stamp = lockGramIndex();
+        try {
+            String word = toKey(searchword);
+            ExpensePage.Builder page = new ExpensePage.Builder(offset, limit);
+            Collection<String> candidates = expenses.keySet();
+            if (word.length() >= GRAM_LENGTH) {
+                for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+                    LinkedHashSet<String> keys = gramIndex.get(word.substring(i, i + GRAM_LENGTH));
+                    if (keys == null) {
+                        return page.build();
+                    }
+                    if (keys.size() < candidates.size()) {
+                        candidates = keys;
+                    }
+                }
+            }
+            for (String key : candidates) {
+                if (key.contains(word)) {
+                    page.add(expenses.get(key));
+                }
             }
+            return page.build();
+        } finally {
+            lock.unlock(stamp);
         }
-        return matchingExpenses;
     }
 
     /**
@@ -430,18 +1169,23 @@ public class ExpenseManager {
      * @throws InvalidArgumentException if the category name is empty or does not exist in the current category list.
      */
     public boolean deleteCategory(String category) throws InvalidArgumentException {
-        if (category.isEmpty()) {
-            throw new InvalidArgumentException("", "Category name should not be empty.");
-        }
-        if (!categories.contains(category)) {
-            throw new InvalidArgumentException(category, "Category with name `" + category + "` does not exist.");
-        }
-        List<Expense> expenses = getExpensesByCategory(category);
-        if (expenses.isEmpty()) {
-            categories.remove(category);
-            return true;
-        } else {
-            return false;
+        long stamp = lock.writeLock();
+        try {
+            if (category.isEmpty()) {
+                throw new InvalidArgumentException("", "Category name should not be empty.");
+            }
+            int id = categories.getId(category);
+            if (id == CategoryRegistry.NO_ID) {
+                throw new InvalidArgumentException(category, "Category with name `" + category + "` does not exist.");
+            }
+            if (categories.getCount(id) == 0) {
+                categories.remove(id);
+                return true;
+            } else {
+                return false;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
@@ -454,22 +1198,26 @@ public class ExpenseManager {
      * @throws InvalidArgumentException if the category name is empty or does not exist in the current category list.
      */
     public String clearCategory(String expenseName) throws InvalidArgumentException {
-        if (expenseName.isEmpty()) {
-            throw new InvalidArgumentException("", "Expense name should not be empty.");
-        }
-        for (Expense expense : expenses) {
-            if (expense.getName().equalsIgnoreCase(expenseName)) {
-                boolean belongsToCategory = expense.belongsToCategory();
-                if (belongsToCategory) {
-                    String oldCategory = expense.getCategory();
-                    expense.clearCategory();
-                    return oldCategory;
-                } else {
-                    return "";
-                }
+        long stamp = lock.writeLock();
+        try {
+            if (expenseName.isEmpty()) {
+                throw new InvalidArgumentException("", "Expense name should not be empty.");
+            }
+            Expense expense = findExpense(expenseName);
+            if (expense == null) {
+                throw new InvalidArgumentException(expenseName,
+                        "Expense with name `" + expenseName + "` does not exist.");
             }
+            if (!expense.belongsToCategory()) {
+                return "";
+            }
+            String oldCategory = expense.getCategory();
+            unindexCategory(expense);
+            expense.clearCategory();
+            return oldCategory;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        throw new InvalidArgumentException(expenseName, "Expense with name `" + expenseName + "` does not exist.");
     }
 
     /**
@@ -481,21 +1229,42 @@ public class ExpenseManager {
      *         or no expense with the given name exists.
      */
     public void editExpenseAmount(String expenseName, double amount) throws InvalidArgumentException {
-        if (expenseName.isEmpty()) {
-            throw new InvalidArgumentException("", "Expense name should not be empty.");
-        }
-        if (amount <= 0) {
-            throw new InvalidArgumentException("", "Amount should be a positive integer.");
+        long stamp = lock.writeLock();
+        try {
+            if (expenseName.isEmpty()) {
+                throw new InvalidArgumentException("", "Expense name should not be empty.");
+            }
+            if (amount <= 0) {
+                throw new InvalidArgumentException("", "Amount should be a positive integer.");
+            }
+            Expense expense = findExpense(expenseName);
+            if (expense == null) {
+                throw new InvalidArgumentException(expenseName,
+                        "Expense with name `" + expenseName + "` does not exist.");
+            }
+            changeAmount(expense, Money.toCents(amount));
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        for (Expense expense : expenses) {
-            if (expense.getName().equalsIgnoreCase(expenseName)) {
-                double oldTotalExpense = getTotalExpense();
-                double oldExpenseAmount = expense.getAmount();
-                expense.setAmount(amount);
-                setTotalExpense(oldTotalExpense + (amount - oldExpenseAmount));
-                return;
+    }
+
+    /**
+     * Updates the timestamp of an expense.
+     *
+     * @param expenseName The name of the expense to update.
+     * @param dateTime    The new timestamp.
+     * @throws InvalidArgumentException If no expense with the given name exists.
+     */
+    public void setExpenseDateTime(String expenseName, LocalDateTime dateTime) throws InvalidArgumentException {
+        long stamp = lock.writeLock();
+        try {
+            Expense expense = findExpense(expenseName);
+            if (expense == null) {
+                throw new InvalidArgumentException(expenseName, "Expense with name `" + expenseName + "` not found.");
             }
+            changeDateTime(expense, dateTime);
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        throw new InvalidArgumentException(expenseName, "Expense with name `" + expenseName + "` does not exist.");
     }
 }
@@ -0,0 +1,88 @@
+package seedu.tripbuddy.framework;
+
+import seedu.tripbuddy.dataclass.Expense;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents one page of the expenses that match a query, together with the number and total amount of matches.
+ * Only the expenses on the page are collected, so a page costs the same however many expenses match.
+ * The count and the amount are taken under the same lock as the page, so they always agree with it.
+ *
+ * @param expenses   the expenses on the page, in the order of the query
+ * @param offset     the number of matching expenses before the page, at most {@code total}
+ * @param total      the number of expenses that match the query
+ * @param totalCents the total amount of the expenses that match the query, in cents of the base currency
+ */
+public record ExpensePage(List<Expense> expenses, int offset, int total, long totalCents) {
+
+    /**
+     * Returns whether no expense matches the query at all.
+     *
+     * @return {@code true} if there are no matches
+     */
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    /**
+     * Collects a page from the matches of a query as they are found, and only counts and sums the matches outside it.
+     */
+    static final class Builder {
+        private final int offset;
+        private final long end;
+        private final ArrayList<Expense> expenses = new ArrayList<>();
+        private int total = 0;
+        private long totalCents = 0;
+
+        /**
+         * Constructs a builder for the page of at most {@code limit} matches after the first {@code offset}.
+         */
+        Builder(int offset, int limit) {
+            this.offset = offset;
+            this.end = (long) offset + limit;
+        }
+
+        /**
+         * Adds the next match.
+         */
+        void add(Expense expense) {
+            if (total >= offset && total < end) {
+                expenses.add(expense);
+            }
+            total++;
+            totalCents += expense.getAmountCents();
+        }
+
+        /**
+         * Adds the next matches, whose total amount is already known, visiting them only up to the end of the page.
+         *
+         * @param matches      the matches to add
+         * @param matchesCents the total amount of {@code matches}, in cents of the base currency
+         */
+        void addAll(Collection<Expense> matches, long matchesCents) {
+            long pageCents = 0;
+            int remaining = matches.size();
+            if (total + remaining > offset && total < end) {
+                for (Expense expense : matches) {
+                    if (total >= end) {
+                        break;
+                    }
+                    add(expense);
+                    pageCents += expense.getAmountCents();
+                    remaining--;
+                }
+            }
+            total += remaining;
+            totalCents += matchesCents - pageCents;
+        }
+
+        ExpensePage build() {
+            return new ExpensePage(Collections.unmodifiableList(expenses), Math.min(offset, total), total,
+                    totalCents);
+        }
+    }
+}
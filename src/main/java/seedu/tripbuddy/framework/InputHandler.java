@@ -5,9 +5,11 @@ import seedu.tripbuddy.command.Keyword;
 import seedu.tripbuddy.command.Parser;
 import seedu.tripbuddy.exception.ExceptionHandler;
 import seedu.tripbuddy.exception.InvalidArgumentException;
-import seedu.tripbuddy.exception.InvalidKeywordException;
-import seedu.tripbuddy.exception.MissingOptionException;
+import seedu.tripbuddy.exception.InvalidCommandException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeParseException;
 import java.util.logging.Logger;
 
@@ -20,6 +22,7 @@ public class InputHandler {
 
     private CommandHandler commandHandler;
     private Parser parser;
+    private boolean isRunningScript = false;
 
     /**
      * Private constructor for singleton pattern. Initializes the command handler and parser.
@@ -49,49 +52,126 @@ public class InputHandler {
      * @return The result message from executing the command.
      */
     public String handleUserInput(String userInput) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        String message = handleUserInput(userInput, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        String written = buffer.toString(StandardCharsets.UTF_8);
+        return message != null ? written + message : written;
+    }
+
+    /**
+     * Parses the user's input and executes the corresponding command.
+     * Listing commands ({@code list-expense}, {@code search} and {@code filter-date}) write their message to
+     * {@code out} row by row, so long listings are never held as one string; other commands return their message.
+     *
+     * @param userInput The full user input string.
+     * @param out       The stream that listing commands write to.
+     * @return The result message from executing the command, or {@code null} if it was written to {@code out}.
+     */
+    public String handleUserInput(String userInput, PrintStream out) {
         try {
-            Command cmd = parser.parseCommand(userInput);
-            Keyword keyword = cmd.getKeyword();
-            int optCount = cmd.getOptCount();
-            return switch (keyword) {
-            case TUTORIAL -> commandHandler.handleTutorial();
-            case SET_BUDGET -> commandHandler.handleSetBudget(cmd.parseDouble(""));
-            case VIEW_BUDGET -> commandHandler.handleViewBudget();
-            case CREATE_CATEGORY -> commandHandler.handleCreateCategory(cmd.getOpt(""));
-            case SET_CATEGORY -> commandHandler.handleSetCategory(cmd.getOpt(""), cmd.getOpt("c"));
-            case ADD_EXPENSE -> {
-                double amount = cmd.parseDouble("a");
-                if (cmd.hasOpt("c")) {
-                    yield commandHandler.handleAddExpense(cmd.getOpt(""), amount, cmd.getOpt("c"));
-                }
-                yield commandHandler.handleAddExpense(cmd.getOpt(""), amount);
-            }
-            case DELETE_EXPENSE -> commandHandler.handleDeleteExpense(cmd.getOpt(""));
-            case LIST_EXPENSE -> commandHandler.handleListExpense(optCount == 0 ? null : cmd.getOpt(""));
-            case MAX_EXPENSE -> commandHandler.handleMaxExpense();
-            case MIN_EXPENSE -> commandHandler.handleMinExpense();
-            case FILTER_DATE -> commandHandler.handleFilterExpenseByDateRange(cmd.getOpt("f"), cmd.getOpt("t"));
-            case VIEW_CURRENCY -> commandHandler.handleViewCurrency();
-            case SEARCH -> commandHandler.handleSearch(cmd.getOpt(""));
-            case VIEW_CATEGORIES -> commandHandler.handleViewCategories();
-            case SET_BASE_CURRENCY -> commandHandler.handleSetBaseCurrency(cmd.getOpt(""));
-            case SET_TIME -> commandHandler.handleSetTime(cmd.getOpt(""), cmd.getOpt("t"));
-            case CLEAR -> commandHandler.handleClearAll();
-            case DELETE_CATEGORY -> commandHandler.handleDeleteCategory(cmd.getOpt(""));
-            case CLEAR_CATEGORY -> commandHandler.handleClearCategory(cmd.getOpt(""));
-            case EDIT_AMOUNT -> {
-                double amount = cmd.parseDouble("a");
-                yield commandHandler.handleEditExpenseAmount(cmd.getOpt(""), amount);
-            }
-            };
+            return executeCommand(userInput, out);
         } catch (DateTimeParseException e) {
             return ExceptionHandler.handleDateTimeParseException(e);
-        } catch (InvalidKeywordException e) {
-            return ExceptionHandler.handleInvalidKeywordException(e);
-        } catch (MissingOptionException e) {
-            return ExceptionHandler.handleMissingOptionException(e);
-        } catch (InvalidArgumentException e) {
-            return ExceptionHandler.handleInvalidArgumentException(e);
+        } catch (InvalidCommandException e) {
+            return ExceptionHandler.handleInvalidCommandException(e);
+        }
+    }
+
+    /**
+     * Parses and executes one command without handling its errors.
+     * Listing commands write their message to {@code out}; other commands return their message.
+     *
+     * @param userInput The full user input string.
+     * @param out       The stream that listing commands write to.
+     * @return The result message from executing the command, or {@code null} if it was written to {@code out}.
+     * @throws InvalidCommandException If the command is invalid.
+     * @throws DateTimeParseException  If a timestamp in the command is malformed.
+     */
+    public String executeCommand(String userInput, PrintStream out) throws InvalidCommandException {
+        Command cmd = parser.parseCommand(userInput);
+        Keyword keyword = cmd.getKeyword();
+        return switch (keyword) {
+        case TUTORIAL -> commandHandler.handleTutorial();
+        case SET_BUDGET -> commandHandler.handleSetBudget(cmd.parseDouble(""));
+        case VIEW_BUDGET -> commandHandler.handleViewBudget();
+        case CREATE_CATEGORY -> commandHandler.handleCreateCategory(cmd.getOpt(""));
+        case SET_CATEGORY -> commandHandler.handleSetCategory(cmd.getOpt(""), cmd.getOpt("c"));
+        case ADD_EXPENSE -> {
+            double amount = cmd.parseDouble("a");
+            if (cmd.hasOpt("c")) {
+                yield commandHandler.handleAddExpense(cmd.getOpt(""), amount, cmd.getOpt("c"));
+            }
+            yield commandHandler.handleAddExpense(cmd.getOpt(""), amount);
+        }
+        case DELETE_EXPENSE -> commandHandler.handleDeleteExpense(cmd.getOpt(""));
+        case LIST_EXPENSE -> {
+            String category = cmd.hasOpt("") ? cmd.getOpt("") : null;
+            commandHandler.handleListExpense(category, parseOffset(cmd), parseLimit(cmd), out);
+            yield null;
+        }
+        case MAX_EXPENSE -> commandHandler.handleMaxExpense();
+        case MIN_EXPENSE -> commandHandler.handleMinExpense();
+        case TOP_EXPENSE -> commandHandler.handleTopExpense(cmd.parseInt(""));
+        case BOTTOM_EXPENSE -> commandHandler.handleBottomExpense(cmd.parseInt(""));
+        case FILTER_DATE -> {
+            commandHandler.handleFilterExpenseByDateRange(cmd.getOpt("f"), cmd.getOpt("t"), parseOffset(cmd),
+                    parseLimit(cmd), out);
+            yield null;
+        }
+        case VIEW_CURRENCY -> commandHandler.handleViewCurrency();
+        case SEARCH -> {
+            commandHandler.handleSearch(cmd.getOpt(""), parseOffset(cmd), parseLimit(cmd), out);
+            yield null;
+        }
+        case VIEW_CATEGORIES -> commandHandler.handleViewCategories();
+        case SET_BASE_CURRENCY -> commandHandler.handleSetBaseCurrency(cmd.getOpt(""));
+        case SET_TIME -> commandHandler.handleSetTime(cmd.getOpt(""), cmd.getOpt("t"));
+        case CLEAR -> commandHandler.handleClearAll();
+        case DELETE_CATEGORY -> commandHandler.handleDeleteCategory(cmd.getOpt(""));
+        case CLEAR_CATEGORY -> commandHandler.handleClearCategory(cmd.getOpt(""));
+        case EDIT_AMOUNT -> {
+            double amount = cmd.parseDouble("a");
+            yield commandHandler.handleEditExpenseAmount(cmd.getOpt(""), amount);
+        }
+        case RUN_SCRIPT -> runScript(cmd.getOpt(""), !cmd.hasOpt("q"), out);
+        case IMPORT_CSV -> commandHandler.handleImportCsv(cmd.getOpt(""));
+        case EXPORT_CSV -> commandHandler.handleExportCsv(cmd.getOpt(""), cmd.getOpt("c", null),
+                cmd.getOpt("f", null), cmd.getOpt("t", null), cmd.getOpt("s", null));
+        };
+    }
+
+    /**
+     * Parses the {@code -o} option of a listing command, the number of rows to skip.
+     */
+    private static int parseOffset(Command cmd) throws InvalidCommandException {
+        return cmd.hasOpt("o") ? cmd.parseInt("o", 0) : 0;
+    }
+
+    /**
+     * Parses the {@code -l} option of a listing command, the maximum number of rows to show.
+     */
+    private static int parseLimit(Command cmd) throws InvalidCommandException {
+        return cmd.hasOpt("l") ? cmd.parseInt("l") : CommandHandler.NO_LIMIT;
+    }
+
+    /**
+     * Runs the commands in a script file. Scripts cannot run other scripts.
+     *
+     * @param path   The path of the script file.
+     * @param isEcho Whether to print each command and its message.
+     * @param out    The stream to print to.
+     * @return A summary of the run.
+     * @throws InvalidArgumentException If a script is already running or the file cannot be read.
+     */
+    private String runScript(String path, boolean isEcho, PrintStream out) throws InvalidArgumentException {
+        if (isRunningScript) {
+            throw new InvalidArgumentException(path, "Scripts cannot run other scripts.");
+        }
+        isRunningScript = true;
+        try {
+            return new ScriptRunner(this).run(path, isEcho, out);
+        } finally {
+            isRunningScript = false;
         }
     }
 }
@@ -0,0 +1,148 @@
+package seedu.tripbuddy.framework;
+
+import seedu.tripbuddy.exception.ExceptionHandler;
+import seedu.tripbuddy.exception.InvalidArgumentException;
+import seedu.tripbuddy.exception.InvalidCommandException;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the commands in a script file, one command per line, through an {@link InputHandler}.
+ * Blank lines and lines starting with {@code #} are skipped, and a {@code quit} line ends the script.
+ *
+ * Output is buffered and only flushed when the script ends, so long scripts run at disk speed.
+ * Commands and their messages can be left out of the output; errors are always printed with their line number.
+ */
+public class ScriptRunner {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputHandler inputHandler;
+
+    /**
+     * Constructs a runner that executes commands with the given input handler.
+     *
+     * @param inputHandler the handler that executes each command
+     */
+    public ScriptRunner(InputHandler inputHandler) {
+        this.inputHandler = inputHandler;
+    }
+
+    /**
+     * Runs a script file.
+     *
+     * @param path   the path of the script file
+     * @param isEcho whether to print each command and its message
+     * @param out    the stream to print to
+     * @return a summary of the run
+     * @throws InvalidArgumentException if the script file cannot be read
+     */
+    public String run(String path, boolean isEcho, PrintStream out) throws InvalidArgumentException {
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+            return run(reader, path, isEcho, out);
+        } catch (NoSuchFileException e) {
+            throw new InvalidArgumentException(path, "Script file not found.");
+        } catch (IOException | InvalidPathException e) {
+            throw new InvalidArgumentException(path, "Failed to read script file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the commands from a reader.
+     *
+     * @param reader the script to run
+     * @param name   the script name shown in the summary
+     * @param isEcho whether to print each command and its message
+     * @param out    the stream to print to
+     * @return a summary of the run
+     * @throws IOException if the script cannot be read
+     */
+    public String run(BufferedReader reader, String name, boolean isEcho, PrintStream out) throws IOException {
+        PrintStream buffered = new PrintStream(new BufferedOutputStream(out, BUFFER_SIZE), false,
+                StandardCharsets.UTF_8);
+        PrintStream sink = isEcho ? buffered : new PrintStream(OutputStream.nullOutputStream());
+        TreeMap<String, Integer> errorCounts = new TreeMap<>();
+        int commandCount = 0;
+        int lineNumber = 0;
+        long startNanos = System.nanoTime();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                if (inputHandler.isQuitCommand(line)) {
+                    break;
+                }
+                commandCount++;
+                if (isEcho) {
+                    buffered.append("> ").append(line).append('\n');
+                }
+                String error;
+                try {
+                    String message = inputHandler.executeCommand(line, sink);
+                    if (isEcho) {
+                        if (message != null) {
+                            buffered.append(message);
+                        }
+                        buffered.append('\n');
+                    }
+                    continue;
+                } catch (InvalidCommandException e) {
+                    errorCounts.merge(e.getClass().getSimpleName(), 1, Integer::sum);
+                    error = ExceptionHandler.handleInvalidCommandException(e);
+                } catch (DateTimeParseException e) {
+                    errorCounts.merge(e.getClass().getSimpleName(), 1, Integer::sum);
+                    error = ExceptionHandler.handleDateTimeParseException(e);
+                }
+                buffered.append("Line ").append(String.valueOf(lineNumber)).append(": ").append(error).append('\n');
+            }
+        } finally {
+            buffered.flush();
+        }
+        return summarize(name, commandCount, System.nanoTime() - startNanos, errorCounts);
+    }
+
+    /**
+     * Builds the summary of a run.
+     *
+     * @param name         the script name
+     * @param commandCount the number of commands run
+     * @param elapsedNanos the time taken
+     * @param errorCounts  the number of errors by exception type
+     * @return the summary message
+     */
+    private static String summarize(String name, int commandCount, long elapsedNanos,
+            Map<String, Integer> errorCounts) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder sb = new StringBuilder("Ran ").append(commandCount).append(" commands from ").append(name)
+                .append(String.format(" in %.3f s", seconds));
+        if (seconds > 0) {
+            sb.append(String.format(" (%.0f commands/s)", commandCount / seconds));
+        }
+        sb.append('.');
+        int errorTotal = errorCounts.values().stream().mapToInt(Integer::intValue).sum();
+        if (errorTotal == 0) {
+            return sb.append("\nNo errors.").toString();
+        }
+        sb.append('\n').append(errorTotal).append(errorTotal == 1 ? " error:" : " errors:");
+        for (Map.Entry<String, Integer> entry : errorCounts.entrySet()) {
+            sb.append("\n\t").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
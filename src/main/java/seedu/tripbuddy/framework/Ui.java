@@ -1,10 +1,18 @@
 package seedu.tripbuddy.framework;
 
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.util.Scanner;
+import java.util.function.Function;
 
 /**
  * Handles user interaction, including printing messages and getting user input.
  * This class manages all input/output operations for the program.
+ *
+ * Output is buffered and only written out when the user is about to be prompted for input, when the session ends,
+ * or when the buffer fills up, instead of once per line.
  */
 public class Ui {
 
@@ -14,18 +22,41 @@ public class Ui {
             "Welcome to TripBuddy! Type `tutorial` for a list of available commands.";
     private static final String END_MESSAGE = "Your TripBuddy session has ended. Bye!";
 
-    private final Scanner scanner = new Scanner(System.in);
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Scanner scanner;
+    private final PrintStream out;
+
+    /**
+     * Constructs a Ui that reads from the console and writes to {@code System.out}.
+     */
+    public Ui() {
+        this(System.in, System.out);
+    }
 
     /**
-     * Private constructor for singleton pattern.
+     * Constructs a Ui that reads from and writes to the given streams.
+     *
+     * @param in  The stream to read user input from.
+     * @param out The stream to write messages to.
      */
-    public Ui() {}
+    public Ui(InputStream in, OutputStream out) {
+        this.scanner = new Scanner(in);
+        this.out = new PrintStream(new BufferedOutputStream(out, BUFFER_SIZE), false);
+    }
+
+    /**
+     * Writes out all buffered output.
+     */
+    public void flush() {
+        out.flush();
+    }
 
     /**
      * Prints a line separator for better readability.
      */
     public void printLineSeparator() {
-        System.out.println(LINE);
+        out.println(LINE);
     }
 
     /**
@@ -33,17 +64,18 @@ public class Ui {
      */
     public void printStartMessage() {
         printLineSeparator();
-        System.out.println(START_MESSAGE);
+        out.println(START_MESSAGE);
         printLineSeparator();
     }
 
     /**
-     * Retrieves user input from the console.
+     * Retrieves user input from the console, writing out all buffered output first.
      * If there is no next line (e.g., in text UI testing), returns "quit".
      *
      * @return The command entered by the user, with leading and trailing whitespace removed.
      */
     public String getUserInput() {
+        flush();
         // Force quit if text-ui-testing does not end with a "quit" line input
         if (!scanner.hasNextLine()) {
             return "quit";
@@ -52,12 +84,13 @@ public class Ui {
     }
 
     /**
-     * Prints a message indicating that the program is exiting.
+     * Prints a message indicating that the program is exiting, and writes out all buffered output.
      */
     public void printEndMessage() {
         printLineSeparator();
-        System.out.println(END_MESSAGE);
+        out.println(END_MESSAGE);
         printLineSeparator();
+        flush();
     }
 
     /**
@@ -67,7 +100,23 @@ public class Ui {
      */
     public void printMessage(String message) {
         printLineSeparator();
-        System.out.println(message);
+        out.println(message);
+        printLineSeparator();
+    }
+
+    /**
+     * Prints a message wrapped with line separators, letting the writer print parts of it straight to the output.
+     * Whatever the writer prints comes first, followed by the message it returns, if any.
+     *
+     * @param writer Prints to the given stream and returns the rest of the message, or {@code null}.
+     */
+    public void printMessage(Function<PrintStream, String> writer) {
+        printLineSeparator();
+        String message = writer.apply(out);
+        if (message != null) {
+            out.print(message);
+        }
+        out.println();
         printLineSeparator();
     }
 }
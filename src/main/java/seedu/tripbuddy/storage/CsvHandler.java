@@ -0,0 +1,588 @@
+package seedu.tripbuddy.storage;
+
+import seedu.tripbuddy.command.Command;
+import seedu.tripbuddy.dataclass.Currency;
+import seedu.tripbuddy.dataclass.Expense;
+import seedu.tripbuddy.dataclass.Money;
+import seedu.tripbuddy.dataclass.Timestamp;
+import seedu.tripbuddy.exception.InvalidArgumentException;
+import seedu.tripbuddy.framework.ExpenseManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Reads expenses from CSV or TSV files and writes them to CSV or TSV files.
+ *
+ * Rows are read and added in batches, or formatted and written one at a time, so memory use does not grow with the
+ * size of the file.
+ * The columns are {@code name,amount,currency,category,timestamp} in that order, unless the first line is a header
+ * naming them in another order; only {@code name} and {@code amount} are required. Empty cells fall back to the
+ * base currency, no category and the time of the import. Fields may be quoted, with {@code ""} for a quote,
+ * and a quoted field may span several lines; line breaks in names and categories are read as spaces.
+ */
+public class CsvHandler {
+
+    /** Column names, in the default column order. */
+    public static final String[] COLUMNS = {"name", "amount", "currency", "category", "timestamp"};
+
+    private static final int NAME = 0;
+    private static final int AMOUNT = 1;
+    private static final int CURRENCY = 2;
+    private static final int CATEGORY = 3;
+    private static final int TIMESTAMP = 4;
+
+    /** Most rejected rows listed in the import message; the rest are only counted. */
+    private static final int MAX_REPORTED_ROWS = 20;
+    /** Number of imported rows added to the {@link ExpenseManager} together. */
+    private static final int IMPORT_BATCH_SIZE = 4096;
+    /** Number of characters of rows collected before they are written out. */
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Thrown when a row cannot be turned into an expense.
+     */
+    private static class RowException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private RowException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Imports the expenses in a file. The file is tab-separated if its name ends with {@code .tsv},
+     * and comma-separated otherwise, the same as written by {@link #exportCsv(String, int[], Iterable, Predicate)}.
+     *
+     * @param path           path of the CSV or TSV file
+     * @param expenseManager the expense manager to add the expenses to
+     * @return a message with the number of imported expenses and the rejected rows
+     * @throws IOException              if the file cannot be read
+     * @throws InvalidArgumentException if the header has no name or amount column
+     */
+    public String importCsv(String path, ExpenseManager expenseManager)
+            throws IOException, InvalidArgumentException {
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+            return importCsv(reader, separatorFor(path), path, expenseManager);
+        }
+    }
+
+    /**
+     * Imports the expenses in CSV form from a reader.
+     *
+     * @param reader         the CSV text
+     * @param name           name of the source shown in the message
+     * @param expenseManager the expense manager to add the expenses to
+     * @return a message with the number of imported expenses and the rejected rows
+     * @throws IOException              if the text cannot be read
+     * @throws InvalidArgumentException if the header has no name or amount column
+     */
+    public String importCsv(BufferedReader reader, String name, ExpenseManager expenseManager)
+            throws IOException, InvalidArgumentException {
+        return importCsv(reader, ',', name, expenseManager);
+    }
+
+    /**
+     * Imports the expenses from a reader, with the given field separator.
+     * Rows are collected and added with {@link ExpenseManager#addExpenses(List)} {@value #IMPORT_BATCH_SIZE} at a
+     * time, and rejected rows are reported in line order.
+     *
+     * @param reader         the CSV or TSV text
+     * @param separator      the field separator
+     * @param name           name of the source shown in the message
+     * @param expenseManager the expense manager to add the expenses to
+     * @return a message with the number of imported expenses and the rejected rows
+     * @throws IOException              if the text cannot be read
+     * @throws InvalidArgumentException if the header has no name or amount column
+     */
+    public String importCsv(BufferedReader reader, char separator, String name, ExpenseManager expenseManager)
+            throws IOException, InvalidArgumentException {
+        RowReader rows = new RowReader(reader, separator);
+        ArrayList<String> fields = new ArrayList<>();
+        int[] columnOf = {0, 1, 2, 3, 4};
+        LocalDateTime importTime = LocalDateTime.now();
+        Batch batch = new Batch();
+        boolean isFirstRow = true;
+
+        while (true) {
+            String error = null;
+            try {
+                if (!rows.next(fields)) {
+                    break;
+                }
+                if (isFirstRow && isHeader(fields)) {
+                    columnOf = mapColumns(fields, name);
+                    isFirstRow = false;
+                    continue;
+                }
+                batch.add(toExpense(fields, columnOf, importTime), rows.getRowLine());
+            } catch (RowException e) {
+                error = e.getMessage();
+            }
+            isFirstRow = false;
+            if (error != null) {
+                batch.reject(error, rows.getRowLine());
+            }
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                batch.flush(expenseManager);
+            }
+        }
+        batch.flush(expenseManager);
+
+        int imported = batch.imported;
+        int rejected = batch.rejected;
+        StringBuilder message = new StringBuilder("Imported ").append(imported)
+                .append(imported == 1 ? " expense from " : " expenses from ").append(name).append('.');
+        if (rejected > 0) {
+            message.append("\nRejected ").append(rejected).append(rejected == 1 ? " row:" : " rows:")
+                    .append(batch.rejectedRows);
+            if (rejected > MAX_REPORTED_ROWS) {
+                message.append("\n\t... and ").append(rejected - MAX_REPORTED_ROWS).append(" more.");
+            }
+        }
+        return message.toString();
+    }
+
+    /**
+     * Returns the field separator for a file: a tab if its name ends with {@code .tsv}, and a comma otherwise.
+     */
+    private static char separatorFor(String path) {
+        return path.toLowerCase(Locale.ROOT).endsWith(".tsv") ? '\t' : ',';
+    }
+
+    /**
+     * Rows of an import waiting to be added, in line order, with the totals of the rows added so far.
+     * Each row holds either an expense or the reason it was rejected while reading.
+     */
+    private static class Batch {
+        private final ArrayList<Expense> expenses = new ArrayList<>(IMPORT_BATCH_SIZE);
+        private final ArrayList<String> errors = new ArrayList<>(IMPORT_BATCH_SIZE);
+        private final int[] lines = new int[IMPORT_BATCH_SIZE];
+        private final StringBuilder rejectedRows = new StringBuilder();
+        private int imported = 0;
+        private int rejected = 0;
+
+        private int size() {
+            return errors.size();
+        }
+
+        private void add(Expense expense, int line) {
+            lines[size()] = line;
+            expenses.add(expense);
+            errors.add(null);
+        }
+
+        private void reject(String error, int line) {
+            lines[size()] = line;
+            expenses.add(null);
+            errors.add(error);
+        }
+
+        /**
+         * Adds the expenses of the waiting rows together, and reports the rejected rows in line order.
+         */
+        private void flush(ExpenseManager expenseManager) {
+            List<Expense> accepted = new ArrayList<>(size());
+            for (Expense expense : expenses) {
+                if (expense != null) {
+                    accepted.add(expense);
+                }
+            }
+            ExpenseManager.Rejection[] rejections = expenseManager.addExpenses(accepted);
+            int next = 0;
+            for (int i = 0; i < size(); i++) {
+                String error = errors.get(i);
+                if (error == null) {
+                    ExpenseManager.Rejection rejection = rejections[next++];
+                    if (rejection != null) {
+                        error = '"' + expenses.get(i).getName() + "\": " + rejection.getReason();
+                    }
+                }
+                if (error == null) {
+                    imported++;
+                    continue;
+                }
+                if (rejected < MAX_REPORTED_ROWS) {
+                    rejectedRows.append("\n\tLine ").append(lines[i]).append(": ").append(error);
+                }
+                rejected++;
+            }
+            expenses.clear();
+            errors.clear();
+        }
+    }
+
+    /**
+     * Reads the rows of CSV or TSV text. A quoted field may contain line breaks, so a row may span several lines;
+     * the line breaks in it are read as {@code \n}.
+     */
+    private static class RowReader {
+        private final BufferedReader reader;
+        private final char separator;
+        private final StringBuilder quoted = new StringBuilder();
+        private int lineNumber = 0;
+        private int rowLine = 0;
+
+        private RowReader(BufferedReader reader, char separator) {
+            this.reader = reader;
+            this.separator = separator;
+        }
+
+        /**
+         * Returns the number of the line the last row read starts on.
+         */
+        private int getRowLine() {
+            return rowLine;
+        }
+
+        /**
+         * Reads the next row that is not blank and splits it into its fields.
+         *
+         * @param fields the list to put the fields in, cleared first
+         * @return {@code false} if there are no more rows
+         * @throws IOException  if reading fails
+         * @throws RowException if a quoted field is still open at the end of the text, or is followed by more than
+         *                      spaces before the next separator
+         */
+        private boolean next(List<String> fields) throws IOException, RowException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                lineNumber++;
+            } while (line.isBlank());
+            rowLine = lineNumber;
+            fields.clear();
+            int pos = 0;
+            while (true) {
+                if (pos < line.length() && line.charAt(pos) == '"') {
+                    quoted.setLength(0);
+                    pos++;
+                    while (true) {
+                        if (pos >= line.length()) {
+                            line = reader.readLine();
+                            if (line == null) {
+                                throw new RowException("Unclosed quote.");
+                            }
+                            lineNumber++;
+                            quoted.append('\n');
+                            pos = 0;
+                            continue;
+                        }
+                        char c = line.charAt(pos++);
+                        if (c != '"') {
+                            quoted.append(c);
+                        } else if (pos < line.length() && line.charAt(pos) == '"') {
+                            quoted.append('"');
+                            pos++;
+                        } else {
+                            break;
+                        }
+                    }
+                    fields.add(quoted.toString());
+                    int end = line.indexOf(separator, pos);
+                    end = end < 0 ? line.length() : end;
+                    if (!line.substring(pos, end).isBlank()) {
+                        throw new RowException("Unexpected text after a closing quote: \""
+                                + line.substring(pos, end).strip() + "\".");
+                    }
+                    pos = end;
+                } else {
+                    int end = line.indexOf(separator, pos);
+                    end = end < 0 ? line.length() : end;
+                    fields.add(line.substring(pos, end));
+                    pos = end;
+                }
+                if (pos >= line.length()) {
+                    return true;
+                }
+                pos++; // skip the separator
+            }
+        }
+    }
+
+    /**
+     * Checks whether a row is a header, i.e. every field in it is the name of a column in {@link #COLUMNS}.
+     * A row of data that happens to contain a column name, e.g. an expense called {@code name}, is not a header.
+     */
+    private static boolean isHeader(List<String> fields) {
+        for (String field : fields) {
+            if (!Arrays.asList(COLUMNS).contains(field.strip().toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the position of every column in a header.
+     *
+     * @param header the header fields
+     * @param name   name of the source, for the error message
+     * @return the position of each column in {@link #COLUMNS}, or {@code -1} if it is missing
+     * @throws InvalidArgumentException if the name or amount column is missing
+     */
+    private static int[] mapColumns(List<String> header, String name) throws InvalidArgumentException {
+        int[] columnOf = new int[COLUMNS.length];
+        Arrays.fill(columnOf, -1);
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).strip().toLowerCase(Locale.ROOT);
+            for (int j = 0; j < COLUMNS.length; j++) {
+                if (column.equals(COLUMNS[j]) && columnOf[j] == -1) {
+                    columnOf[j] = i;
+                }
+            }
+        }
+        if (columnOf[NAME] == -1 || columnOf[AMOUNT] == -1) {
+            throw new InvalidArgumentException(name, "CSV header should have name and amount columns.");
+        }
+        return columnOf;
+    }
+
+    /**
+     * Returns a cell of a row, stripped, or an empty string if the row has no such column.
+     */
+    private static String cell(List<String> fields, int[] columnOf, int column) {
+        int index = columnOf[column];
+        return index >= 0 && index < fields.size() ? fields.get(index).strip() : "";
+    }
+
+    /**
+     * Returns a text cell of a row on one line, with each line break read as a space.
+     */
+    private static String textCell(List<String> fields, int[] columnOf, int column) {
+        String text = cell(fields, columnOf, column);
+        return text.indexOf('\n') < 0 ? text : text.replace('\n', ' ').strip();
+    }
+
+    /**
+     * Builds an expense from a row.
+     *
+     * @param fields     the fields of the row
+     * @param columnOf   the position of each column
+     * @param importTime the timestamp of rows without one
+     * @return the expense
+     * @throws RowException if a cell is invalid
+     */
+    private static Expense toExpense(List<String> fields, int[] columnOf, LocalDateTime importTime)
+            throws RowException {
+        String name = textCell(fields, columnOf, NAME);
+
+        String amountStr = cell(fields, columnOf, AMOUNT);
+        double amount;
+        try {
+            amount = Double.parseDouble(amountStr);
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid amount: \"" + amountStr + "\".");
+        }
+        if (!(amount > 0) || amount > Command.MAX_INPUT_VAL) {
+            throw new RowException("Amount should be more than 0 and no more than " + Command.MAX_INPUT_VAL + '.');
+        }
+
+        String currencyStr = cell(fields, columnOf, CURRENCY);
+        Currency currency = Currency.getBaseCurrency();
+        if (!currencyStr.isEmpty()) {
+            try {
+                currency = Currency.valueOf(currencyStr.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RowException("Unrecognized currency: \"" + currencyStr + "\".");
+            }
+        }
+
+        String category = textCell(fields, columnOf, CATEGORY);
+
+        String timestamp = cell(fields, columnOf, TIMESTAMP);
+        LocalDateTime dateTime = importTime;
+        if (!timestamp.isEmpty()) {
+            try {
+                dateTime = Timestamp.parse(timestamp);
+            } catch (DateTimeParseException e) {
+                throw new RowException("Invalid timestamp: \"" + timestamp + "\". Please use yyyy-MM-dd HH:mm:ss");
+            }
+        }
+        return new Expense(name, amount, currency, category.isEmpty() ? null : category, dateTime);
+    }
+
+    /**
+     * Finds the columns named in a comma-separated list, e.g. {@code "name,amount"}.
+     *
+     * @param spec the column names
+     * @return the columns, as positions in {@link #COLUMNS}
+     * @throws InvalidArgumentException if a name is not a known column
+     */
+    public static int[] parseColumns(String spec) throws InvalidArgumentException {
+        String[] names = spec.split(",");
+        int[] columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            String column = names[i].strip().toLowerCase(Locale.ROOT);
+            columns[i] = Arrays.asList(COLUMNS).indexOf(column);
+            if (columns[i] == -1) {
+                throw new InvalidArgumentException(names[i].strip(),
+                        "Unknown column. Columns are " + String.join(",", COLUMNS) + ".");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Returns all columns in the default order.
+     *
+     * @return the positions of all columns in {@link #COLUMNS}
+     */
+    public static int[] allColumns() {
+        return new int[]{NAME, AMOUNT, CURRENCY, CATEGORY, TIMESTAMP};
+    }
+
+    /**
+     * Writes the expenses that pass a filter to a file, creating or replacing it.
+     * The file is tab-separated if its name ends with {@code .tsv}, and comma-separated otherwise.
+     *
+     * @param path     path of the file
+     * @param columns  the columns to write, as positions in {@link #COLUMNS}
+     * @param expenses the expenses to go through
+     * @param filter   selects the expenses to write
+     * @return the number of expenses written
+     * @throws IOException if the file cannot be written
+     */
+    public int exportCsv(String path, int[] columns, Iterable<Expense> expenses, Predicate<Expense> filter)
+            throws IOException {
+        Path file = Path.of(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        char separator = separatorFor(path);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return exportCsv(writer, separator, columns, expenses, filter);
+        }
+    }
+
+    /**
+     * Writes a header and the expenses that pass a filter, in the given column order.
+     * Amounts are in the currency each expense was entered in if the currency column is written,
+     * and in the base currency otherwise, so an amount column is never a mix of unlabelled currencies.
+     * Rows are formatted into one reused buffer and written out in chunks.
+     *
+     * @param writer    the writer to write to
+     * @param separator the field separator
+     * @param columns   the columns to write, as positions in {@link #COLUMNS}
+     * @param expenses  the expenses to go through
+     * @param filter    selects the expenses to write
+     * @return the number of expenses written
+     * @throws IOException if writing fails
+     */
+    public int exportCsv(Writer writer, char separator, int[] columns, Iterable<Expense> expenses,
+            Predicate<Expense> filter) throws IOException {
+        StringBuilder chunk = new StringBuilder(CHUNK_SIZE * 2);
+        char[] chars = new char[CHUNK_SIZE];
+        boolean hasCurrency = false;
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                chunk.append(separator);
+            }
+            chunk.append(COLUMNS[columns[i]]);
+            hasCurrency |= columns[i] == CURRENCY;
+        }
+        chunk.append('\n');
+
+        int count = 0;
+        for (Expense expense : expenses) {
+            if (!filter.test(expense)) {
+                continue;
+            }
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    chunk.append(separator);
+                }
+                appendCell(chunk, expense, columns[i], separator, hasCurrency);
+            }
+            chunk.append('\n');
+            count++;
+            if (chunk.length() >= CHUNK_SIZE) {
+                writeChunk(writer, chunk, chars);
+            }
+        }
+        writeChunk(writer, chunk, chars);
+        return count;
+    }
+
+    /**
+     * Writes out and empties a chunk of rows through one reused buffer, a buffer's length at a time.
+     * {@link Writer#append(CharSequence)} would copy the whole chunk into a new string first.
+     *
+     * @param writer the writer to write to
+     * @param chunk  the rows to write
+     * @param chars  the buffer to copy the rows through
+     * @throws IOException if writing fails
+     */
+    private static void writeChunk(Writer writer, StringBuilder chunk, char[] chars) throws IOException {
+        for (int from = 0; from < chunk.length(); from += chars.length) {
+            int to = Math.min(from + chars.length, chunk.length());
+            chunk.getChars(from, to, chars, 0);
+            writer.write(chars, 0, to - from);
+        }
+        chunk.setLength(0);
+    }
+
+    /**
+     * Appends one cell of an expense.
+     *
+     * @param sb        the builder to append to
+     * @param expense   the expense
+     * @param column      the column, as a position in {@link #COLUMNS}
+     * @param separator   the field separator, which forces quoting
+     * @param hasCurrency whether the currency column is written, so the amount can be in its own currency
+     */
+    private static void appendCell(StringBuilder sb, Expense expense, int column, char separator,
+            boolean hasCurrency) {
+        switch (column) {
+        case NAME -> appendText(sb, expense.getName(), separator);
+        case AMOUNT -> Money.appendTo(sb, hasCurrency ? expense.getOriginalAmountCents() : expense.getAmountCents());
+        case CURRENCY -> sb.append(expense.getCurrency());
+        case CATEGORY -> appendText(sb, expense.getCategory(), separator);
+        case TIMESTAMP -> Timestamp.appendTo(sb, expense.getDateTime());
+        default -> throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+
+    /**
+     * Appends a text cell, quoting it if it contains the separator, a quote or a line break.
+     *
+     * @param sb        the builder to append to
+     * @param text      the text, or {@code null} for an empty cell
+     * @param separator the field separator
+     */
+    private static void appendText(StringBuilder sb, String text, char separator) {
+        if (text == null) {
+            return;
+        }
+        boolean needsQuotes = text.indexOf(separator) >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            sb.append(text);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
@@ -12,82 +12,212 @@ import seedu.tripbuddy.framework.ExpenseManager;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DataHandler {
 
+    /** Number of saved expenses decoded and added together. */
+    private static final int LOAD_BATCH_SIZE = 4096;
+
     private static Logger logger = null;
     private FileHandler fileHandler;
+    private final boolean isPretty;
 
     public DataHandler(Logger logger) {
-        this.logger = logger;
-        fileHandler = new FileHandler(logger);
+        this(logger, true);
     }
 
-
-    private static double round2Digits(double x) {
-        assert x > 0 && x <= Command.MAX_INPUT_VAL;
-        return (int) (x * 100 + .5) / 100.;
+    /**
+     * Constructs a {@code DataHandler}.
+     *
+     * @param logger   the logger to use
+     * @param isPretty whether saved files are indented for reading, or written as compactly as possible
+     */
+    public DataHandler(Logger logger, boolean isPretty) {
+        this(logger, isPretty, new FileHandler(logger));
     }
 
+    /**
+     * Constructs a {@code DataHandler} that reads and writes files through the given {@link FileHandler}.
+     *
+     * @param logger      the logger to use
+     * @param isPretty    whether saved files are indented for reading, or written as compactly as possible
+     * @param fileHandler the handler for file operations
+     */
+    public DataHandler(Logger logger, boolean isPretty, FileHandler fileHandler) {
+        this.logger = logger;
+        this.isPretty = isPretty;
+        this.fileHandler = fileHandler;
+    }
 
     /**
      * Saves the current {@link ExpenseManager} info into a json file.
+     * Expenses are written one at a time straight to the file from the shared expense snapshot,
+     * so saving needs no memory beyond the write buffer. The file is replaced atomically, see
+     * {@link FileHandler#writeAtomically}.
      * @return The message for display
      */
     public String saveData(String path, ExpenseManager expenseManager) throws IOException {
-        JSONObject root = new JSONObject();
-        root.put("currency", expenseManager.getBaseCurrency().toString());
-        root.put("budget", round2Digits(expenseManager.getBudget()));
+        String absPath = fileHandler.writeJson(path, isPretty, writer -> writeData(writer, expenseManager));
+        return "Saved data to file:\n\t" + absPath;
+    }
+
+    private static void writeData(JsonWriter writer, ExpenseManager expenseManager) throws IOException {
+        writer.beginObject();
+        writer.name("currency").value(expenseManager.getBaseCurrency().toString());
+        writer.name("budget").value(expenseManager.getBudget());
 
         logger.log(Level.INFO, "budget converted");
 
-        JSONArray categoriesArr = new JSONArray();
+        writer.name("categories").beginArray();
         for (String category : expenseManager.getCategories()) {
-            categoriesArr.put(category);
+            writer.value(category);
         }
-        root.put("categories", categoriesArr);
+        writer.endArray();
 
         logger.log(Level.INFO, "categories converted");
 
-        JSONArray expensesArr = new JSONArray();
-        for (Expense expense : expenseManager.getExpenses()) {
-            JSONObject expObj = expense.toJSON();
-            expensesArr.put(expObj);
-            logger.log(Level.INFO, "expense converted: " + expObj);
+        List<Expense> expenses = expenseManager.getExpenses();
+        boolean isTracing = logger.isLoggable(Level.FINEST);
+        writer.name("expenses").beginArray();
+        for (Expense expense : expenses) {
+            writeExpense(writer, expense);
+            if (isTracing) {
+                logger.log(Level.FINEST, () -> "expense converted: " + expense.getName());
+            }
         }
-        root.put("expenses", expensesArr);
+        writer.endArray();
+        writer.endObject();
 
-        logger.log(Level.INFO, "expenses converted");
+        logger.log(Level.INFO, () -> "expenses converted: " + expenses.size());
+    }
 
-        String absPath = fileHandler.writeJsonObject(path, root);
-        return "Saved data to file:\n\t" + absPath;
+    /**
+     * Writes an expense with the same fields as {@link Expense#toJSON()}.
+     */
+    private static void writeExpense(JsonWriter writer, Expense expense) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(expense.getName());
+        writer.name("amount").valueCents(expense.getOriginalAmountCents());
+        writer.name("currency").value(expense.getCurrency().toString());
+        if (expense.getCategory() != null) {
+            writer.name("category").value(expense.getCategory());
+        }
+        writer.name("dateTime").value(expense.getDateTimeString());
+        writer.endObject();
     }
 
     /**
      * Loads the ExpenseManager data from a file and returns a status message for display.
+     * The file is parsed as a stream, and expenses are added in batches as soon as they are read,
+     * so the file is never held in memory as a whole. The budget, and expenses without a currency of their own,
+     * are in the file's currency, so they are applied only after the currency, whichever order the fields are
+     * saved in. Saved files have the currency first; expenses that come before it are held until it is read.
      *
      * @param path The path to the JSON file.
      * @return A message including all error info.
      * @throws FileNotFoundException If the file cannot be found.
-     * @throws JSONException         If there is an error parsing the JSON.
-     * @throws DataLoadingException  If required fields are missing or invalid.
+     * @throws DataLoadingException  If the file cannot be read or parsed, or the budget is invalid.
+     *                               Nothing is loaded in this case.
      */
     public String loadData(String path)
             throws FileNotFoundException, DataLoadingException {
 
-        JSONObject root;
-        try {
-            root = fileHandler.readJsonObject(path);
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+
+        // Save all messages to be displayed, in the same order whatever order the fields are in
+        StringBuilder budgetMessage = new StringBuilder();
+        StringBuilder currencyMessage = new StringBuilder();
+        StringBuilder categoriesMessage = new StringBuilder();
+        StringBuilder expensesMessage = new StringBuilder();
+        // Holds the fields read so far, except the expenses which are added directly
+        JSONObject root = new JSONObject();
+        boolean hasExpenses = false;
+        // Expenses read before the currency, which those without a currency of their own are in
+        List<Object> pendingExpenses = null;
+
+        try (JsonReader reader = fileHandler.openJsonReader(path)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                case "budget" -> {
+                    root.put(name, reader.nextValue());
+                    // The budget is in the file's currency, so it waits for the currency if that comes later
+                    if (root.has("currency")) {
+                        loadBudget(root, expenseManager, budgetMessage);
+                    }
+                }
+                case "currency" -> {
+                    root.put(name, reader.nextValue());
+                    loadCurrency(root, expenseManager, currencyMessage);
+                    if (root.has("budget")) {
+                        loadBudget(root, expenseManager, budgetMessage);
+                    }
+                    if (pendingExpenses != null) {
+                        addExpenses(pendingExpenses, expenseManager, expensesMessage);
+                        pendingExpenses = null;
+                    }
+                }
+                case "categories" -> {
+                    root.put(name, reader.nextValue());
+                    loadCategories(root, expenseManager, hasExpenses, categoriesMessage);
+                }
+                case "expenses" -> {
+                    hasExpenses = true;
+                    if (root.has("currency")) {
+                        loadExpenses(reader, expenseManager, expensesMessage);
+                    } else {
+                        pendingExpenses = readExpenses(reader, expensesMessage);
+                    }
+                }
+                default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            // Without a currency, a budget or expenses still waiting are taken in the current one;
+            // otherwise missing fields only produce their messages
+            if (!root.has("currency")) {
+                loadCurrency(root, expenseManager, currencyMessage);
+                loadBudget(root, expenseManager, budgetMessage);
+                if (pendingExpenses != null) {
+                    addExpenses(pendingExpenses, expenseManager, expensesMessage);
+                }
+            } else if (!root.has("budget")) {
+                loadBudget(root, expenseManager, budgetMessage);
+            }
+        } catch (FileNotFoundException e) {
+            throw e;
         } catch (JSONException e) {
+            expenseManager.clearExpensesAndCategories();
             throw new DataLoadingException("Failed to load your json save due syntax errors:\n\t" + e.getMessage());
+        } catch (IOException e) {
+            expenseManager.clearExpensesAndCategories();
+            throw new DataLoadingException("Failed to read your json save:\n\t" + e.getMessage());
+        } catch (DataLoadingException e) {
+            expenseManager.clearExpensesAndCategories();
+            throw e;
         }
-        ExpenseManager expenseManager = ExpenseManager.getInstance();
 
-        // Save all messages to be displayed
-        StringBuilder invalidJsonMessage = new StringBuilder();
+        if (!root.has("categories")) {
+            loadCategories(root, expenseManager, hasExpenses, categoriesMessage);
+        }
+        if (!hasExpenses) {
+            expensesMessage.append("Expenses information missing.\n");
+        }
+
+        return budgetMessage.append(currencyMessage).append(categoriesMessage).append(expensesMessage).toString();
+    }
 
+    private static void loadBudget(JSONObject root, ExpenseManager expenseManager, StringBuilder invalidJsonMessage)
+            throws DataLoadingException {
         try {
             double budget = root.getDouble("budget");
             if (budget <= 0 || budget > Command.MAX_INPUT_VAL) {
@@ -98,7 +228,10 @@ public class DataHandler {
         } catch (JSONException e) {
             invalidJsonMessage.append("Budget information missing. Using default budget instead.\n");
         }
+    }
 
+    private static void loadCurrency(JSONObject root, ExpenseManager expenseManager,
+            StringBuilder invalidJsonMessage) {
         String currencyName;
         try {
             currencyName = root.getString("currency");
@@ -111,12 +244,20 @@ public class DataHandler {
             invalidJsonMessage.append("Unrecognized currency: ")
                     .append(currencyName).append(". Using SGD instead.\n");
         }
+    }
 
+    /**
+     * Creates the saved categories. If the expenses came first in the file, categories they already created
+     * are not reported as duplicates.
+     */
+    private static void loadCategories(JSONObject root, ExpenseManager expenseManager, boolean hasExpenses,
+            StringBuilder invalidJsonMessage) {
         try {
             JSONArray categoriesArr = root.getJSONArray("categories");
+            Set<String> existing = hasExpenses ? new HashSet<>(expenseManager.getCategories()) : Set.of();
             for (int i = 0; i < categoriesArr.length(); i++) {
                 String category = categoriesArr.optString(i, null);
-                if (category == null) {
+                if (category == null || existing.contains(category)) {
                     continue;
                 }
                 try {
@@ -130,23 +271,158 @@ public class DataHandler {
         } catch (JSONException e) {
             invalidJsonMessage.append("Categories information missing. Will create categories along with expenses.\n");
         }
+    }
 
-        try {
-            JSONArray expensesArr = root.getJSONArray("expenses");
-            for (int i = 0; i < expensesArr.length(); i++) {
+    /**
+     * Reads the expenses array in batches of {@value #LOAD_BATCH_SIZE}, adding each batch to the
+     * {@link ExpenseManager} as soon as it is parsed.
+     */
+    private static void loadExpenses(JsonReader reader, ExpenseManager expenseManager,
+            StringBuilder invalidJsonMessage) throws IOException {
+        if (reader.peek() != JsonReader.Token.BEGIN_ARRAY) {
+            reader.skipValue();
+            invalidJsonMessage.append("Expenses information missing.\n");
+            return;
+        }
+        reader.beginArray();
+        List<Object> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        int firstIndex = 0;
+        while (reader.hasNext()) {
+            batch.add(reader.nextValue());
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                addBatch(batch, firstIndex, expenseManager, invalidJsonMessage);
+                firstIndex += batch.size();
+                batch.clear();
+            }
+        }
+        addBatch(batch, firstIndex, expenseManager, invalidJsonMessage);
+        reader.endArray();
+    }
+
+    /**
+     * Reads the expenses array into memory, for when they cannot be decoded yet.
+     *
+     * @return the JSON values of the expenses, or {@code null} if the value is not an array
+     */
+    private static List<Object> readExpenses(JsonReader reader, StringBuilder invalidJsonMessage)
+            throws IOException {
+        if (reader.peek() != JsonReader.Token.BEGIN_ARRAY) {
+            reader.skipValue();
+            invalidJsonMessage.append("Expenses information missing.\n");
+            return null;
+        }
+        List<Object> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextValue());
+        }
+        reader.endArray();
+        return values;
+    }
+
+    /**
+     * Adds expenses read by {@link #readExpenses} in batches of {@value #LOAD_BATCH_SIZE}.
+     */
+    private static void addExpenses(List<Object> values, ExpenseManager expenseManager,
+            StringBuilder invalidJsonMessage) {
+        for (int from = 0; from < values.size(); from += LOAD_BATCH_SIZE) {
+            List<Object> batch = values.subList(from, Math.min(values.size(), from + LOAD_BATCH_SIZE));
+            addBatch(batch, from, expenseManager, invalidJsonMessage);
+        }
+    }
+
+    /**
+     * Decodes a batch of saved expenses and adds them with {@link ExpenseManager#addExpenses(List)},
+     * reporting each rejected one by its index in the expenses array.
+     * Decoding is spread over the common fork/join pool; the results are kept by position, so the expenses
+     * are added and the errors reported in their original order. Only called once the file's currency has been
+     * applied, which expenses without a currency of their own are decoded in.
+     *
+     * @param batch      the JSON values of the expenses
+     * @param firstIndex the index of the first value in the expenses array
+     */
+    private static void addBatch(List<Object> batch, int firstIndex, ExpenseManager expenseManager,
+            StringBuilder invalidJsonMessage) {
+        Expense[] decoded = new Expense[batch.size()];
+        String[] errors = new String[batch.size()];
+        Currency currency = expenseManager.getBaseCurrency();
+        new DecodeTask(batch, firstIndex, currency, decoded, errors, 0, batch.size()).invoke();
+
+        List<Expense> expenses = new ArrayList<>(batch.size());
+        int[] positions = new int[batch.size()];
+        for (int i = 0; i < decoded.length; i++) {
+            if (decoded[i] != null) {
+                positions[expenses.size()] = i;
+                expenses.add(decoded[i]);
+            }
+        }
+        ExpenseManager.Rejection[] rejections = expenseManager.addExpenses(expenses);
+        for (int i = 0; i < rejections.length; i++) {
+            if (rejections[i] != null) {
+                errors[positions[i]] = rejections[i].getMessage(expenses.get(i).getName());
+            }
+        }
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                invalidJsonMessage.append("Failed to parse expense at index ").append(firstIndex + i)
+                        .append(". Skipping:\n\t").append(errors[i]).append("\n");
+            }
+        }
+    }
+
+    /**
+     * Decodes a range of saved expenses with {@link Expense#fromJSON(JSONObject, Currency)}, splitting it in halves
+     * until the pieces are small enough to decode on one thread.
+     */
+    private static class DecodeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Number of expenses below which a range is decoded directly instead of being split. */
+        private static final int SPLIT_THRESHOLD = 512;
+
+        private final List<Object> values;
+        private final int firstIndex;
+        /** Currency of expenses saved without one. */
+        private final Currency currency;
+        private final Expense[] decoded;
+        private final String[] errors;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructs a task that decodes {@code values[from, to)} into the same positions of
+         * {@code decoded}, or of {@code errors} if they cannot be decoded.
+         */
+        private DecodeTask(List<Object> values, int firstIndex, Currency currency, Expense[] decoded,
+                String[] errors, int from, int to) {
+            this.values = values;
+            this.firstIndex = firstIndex;
+            this.currency = currency;
+            this.decoded = decoded;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new DecodeTask(values, firstIndex, currency, decoded, errors, from, mid),
+                        new DecodeTask(values, firstIndex, currency, decoded, errors, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
                 try {
-                    JSONObject expObj = expensesArr.getJSONObject(i);
-                    expenseManager.addExpense(expObj);
+                    if (!(values.get(i) instanceof JSONObject expObj)) {
+                        throw new JSONException("JSONArray[" + (firstIndex + i) + "] is not a JSONObject.");
+                    }
+                    decoded[i] = Expense.fromJSON(expObj, currency);
                 } catch (JSONException e) {
-                    String message = e.getMessage();
-                    invalidJsonMessage.append("Failed to parse expense at index ").append(i).append(". Skipping:\n\t")
-                            .append(message).append("\n");
+                    errors[i] = e.getMessage();
                 }
             }
-        } catch (JSONException e) {
-            invalidJsonMessage.append("Expenses information missing.\n");
         }
-
-        return invalidJsonMessage.toString();
     }
 }
@@ -1,50 +1,262 @@
 package seedu.tripbuddy.storage;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class FileHandler {
 
+    /** Number of previous versions of a file kept by default. */
+    public static final int DEFAULT_GENERATIONS = 3;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
     private static Logger logger = null;
+    private final int generations;
+    private final boolean isSync;
 
     public FileHandler(Logger log) {
+        this(log, DEFAULT_GENERATIONS, true);
+    }
+
+    /**
+     * Constructs a {@code FileHandler}.
+     *
+     * @param log         the logger to use
+     * @param generations the number of previous versions of a file to keep when it is replaced
+     * @param isSync      whether to force written files to disk before replacing the old version
+     */
+    public FileHandler(Logger log, int generations, boolean isSync) {
+        assert generations >= 0 : "Number of generations cannot be negative";
         logger = log;
+        this.generations = generations;
+        this.isSync = isSync;
     }
 
-    public JSONObject readJsonObject(String path) throws FileNotFoundException, JSONException {
-        File file = new File(path);
-        StringBuilder content = new StringBuilder();
-        try (Scanner scanner = new Scanner(file)) {
-            while (scanner.hasNextLine()) {
-                content.append(scanner.nextLine());
-            }
+    /**
+     * Opens a {@link JsonReader} to stream a json document from a file. The caller should close the returned reader.
+     *
+     * @param path path of the file
+     * @return the reader
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public JsonReader openJsonReader(String path) throws IOException {
+        try {
+            return new JsonReader(Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException | InvalidPathException e) {
+            throw new FileNotFoundException(path + " (No such file)");
         }
-        return new JSONObject(content.toString());
     }
 
     /**
-     * Write json string into a file. The file will be created if not exists.
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    public interface Content {
+        /**
+         * Writes the content.
+         *
+         * @param writer the buffered writer to write to, which must not be closed
+         * @throws IOException if writing fails
+         */
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    /**
+     * Writes the content of a json file.
+     */
+    @FunctionalInterface
+    public interface JsonContent {
+        /**
+         * Writes the json document.
+         *
+         * @param writer the writer to write to, which must not be closed
+         * @throws IOException if writing fails
+         */
+        void writeTo(JsonWriter writer) throws IOException;
+    }
+
+    /**
+     * Returns the path of the {@code generation}-th previous version of a file, e.g. {@code data.json.1}
+     * for the version before the current one.
+     *
+     * @param path       path of the file
+     * @param generation the generation, from 1
+     * @return the path of that generation
+     */
+    public static Path getGenerationPath(Path path, int generation) {
+        return path.resolveSibling(path.getFileName() + "." + generation);
+    }
+
+    /**
+     * Streams a json document into a file through a {@link JsonWriter}, see {@link #writeAtomically}.
+     *
+     * @param path     path of the file
+     * @param isPretty whether to indent the output
+     * @param content  writes the document
      * @return absolute path of the file.
      */
-    public String writeJsonObject(String path, JSONObject data) throws IOException {
-        File file = new File(path);
-        if (file.getParentFile() != null) {
-            file.getParentFile().mkdirs();
-        }
+    public String writeJson(String path, boolean isPretty, JsonContent content) throws IOException {
+        return writeAtomically(path, writer -> content.writeTo(new JsonWriter(writer, isPretty)));
+    }
+
+    /**
+     * Replaces the content of a file so that a crash at any point leaves either the old or the new content.
+     * The content is written to a temporary file next to the target, which gets the permissions of the target,
+     * forced to disk, and then moved over the target in one step. Once the new content is in place, the replaced
+     * version becomes generation 1 (see {@link #getGenerationPath}), older generations move up by one, and those
+     * beyond the number to keep are deleted.
+     * Folders are created if they do not exist. If writing or moving fails, neither the target nor its generations
+     * change.
+     *
+     * @param path    path of the file
+     * @param content writes the content
+     * @return absolute path of the file.
+     */
+    public String writeAtomically(String path, Content content) throws IOException {
+        Path target = Path.of(path).toAbsolutePath();
+        Files.createDirectories(target.getParent());
 
         logger.log(Level.INFO, "folder init done");
 
-        try (FileWriter writer = new FileWriter(file)) {
-            writer.write(data.toString(4));
+        boolean hasTarget = Files.exists(target);
+        Path temp = createTempFile(target, ".tmp");
+        Path previous = null;
+        try {
+            if (hasTarget) {
+                copyPermissions(target, temp);
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                            StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+                content.writeTo(writer);
+                writer.flush();
+                if (isSync) {
+                    channel.force(true);
+                }
+            }
+            if (hasTarget && generations > 0) {
+                previous = linkPrevious(target);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (previous != null) {
+                keepGeneration(target, previous);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+            if (previous != null) {
+                Files.deleteIfExists(previous);
+            }
+        }
+        if (isSync) {
+            syncDirectory(target.getParent());
+        }
+        return target.toString();
+    }
+
+    /**
+     * Returns a random path next to a target file, for a file that is renamed or deleted when done.
+     */
+    private static Path getSiblingPath(Path target, String suffix) {
+        String id = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+        return target.resolveSibling(target.getFileName() + "." + id + suffix);
+    }
+
+    /**
+     * Creates an empty file with a random name next to a target file. Unlike {@link Files#createTempFile},
+     * the file gets the default permissions, the same as the target would get if it were created.
+     */
+    private static Path createTempFile(Path target, String suffix) throws IOException {
+        while (true) {
+            try {
+                return Files.createFile(getSiblingPath(target, suffix));
+            } catch (FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+    }
+
+    /**
+     * Gives a file the POSIX permissions of another, so replacing a file keeps its permissions.
+     * Does nothing where POSIX permissions are not supported.
+     */
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        try {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        } catch (UnsupportedOperationException e) {
+            // not a POSIX file system
+        }
+    }
+
+    /**
+     * Keeps the current version of a file under a temporary name next to it, as a hard link, or a copy where
+     * links are not supported. The current version stays in place, so there is no moment without the file.
+     *
+     * @return the path of the kept version
+     */
+    private static Path linkPrevious(Path target) throws IOException {
+        Path previous = getSiblingPath(target, ".prev");
+        try {
+            Files.createLink(previous, target);
+        } catch (UnsupportedOperationException | IOException e) {
+            // the file system has no hard links
+            Files.copy(target, previous, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return previous;
+    }
+
+    /**
+     * Shifts the kept versions of a file up by one generation and moves the version it replaced to generation 1.
+     * Only called once the new version is in place. A failure here does not undo the save, so it is logged rather than
+     * reported as a failed save.
+     *
+     * @param target   the file
+     * @param previous the version it replaced, see {@link #linkPrevious}
+     */
+    private void keepGeneration(Path target, Path previous) {
+        try {
+            Files.deleteIfExists(getGenerationPath(target, generations));
+            for (int i = generations - 1; i >= 1; i--) {
+                Path older = getGenerationPath(target, i);
+                if (Files.exists(older)) {
+                    Files.move(older, getGenerationPath(target, i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(previous, getGenerationPath(target, 1), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "cannot keep the previous version of " + target, e);
+        }
+    }
+
+    /**
+     * Forces a directory entry change, such as a rename, to disk. Not every platform can open a directory,
+     * in which case this does nothing.
+     */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "cannot sync directory", e);
         }
-        return file.getAbsolutePath();
     }
 }
@@ -0,0 +1,436 @@
+package seedu.tripbuddy.storage;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Reads a JSON document one token at a time from a {@link Reader}, the counterpart of {@link JsonWriter}.
+ * Input is read in 64 KiB blocks, so a large document can be processed piece by piece, e.g. one array element
+ * at a time, without holding the whole text in memory.
+ *
+ * Values read with {@link #nextValue()} are the same objects {@link JSONObject} would parse,
+ * and syntax errors are reported as a {@link JSONException} with the line and column.
+ */
+public class JsonReader implements Closeable {
+
+    /** The kinds of token in a JSON document. */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // What the reader expects next in each open scope
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+    /** Number of characters read before the start of {@link #buffer}. */
+    private long bufferOffset = 0;
+    private int line = 1;
+    private long lineStart = 0;
+
+    private int[] stack = new int[16];
+    private int stackSize = 1;
+    private Token peeked = null;
+    /** Text of the peeked name, string, number or literal. */
+    private String peekedText = null;
+
+    /**
+     * Constructs a reader.
+     *
+     * @param in the reader to read from, which needs no buffering of its own
+     */
+    public JsonReader(Reader in) {
+        this.in = in;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     *
+     * @return the next token
+     * @throws IOException   if reading fails
+     * @throws JSONException if the input is not valid JSON
+     */
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int scope = stack[stackSize - 1];
+        int c;
+        switch (scope) {
+        case EMPTY_ARRAY, NONEMPTY_ARRAY:
+            stack[stackSize - 1] = NONEMPTY_ARRAY;
+            c = nextNonWhitespace();
+            if (c == ']') {
+                return peeked = Token.END_ARRAY;
+            }
+            if (scope == NONEMPTY_ARRAY) {
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']'");
+                }
+                c = nextNonWhitespace();
+            }
+            break;
+        case EMPTY_OBJECT, NONEMPTY_OBJECT:
+            stack[stackSize - 1] = DANGLING_NAME;
+            c = nextNonWhitespace();
+            if (c == '}') {
+                return peeked = Token.END_OBJECT;
+            }
+            if (scope == NONEMPTY_OBJECT) {
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or '}'");
+                }
+                c = nextNonWhitespace();
+            }
+            if (c != '"') {
+                throw syntaxError("Expected a name");
+            }
+            peekedText = readString();
+            return peeked = Token.NAME;
+        case DANGLING_NAME:
+            stack[stackSize - 1] = NONEMPTY_OBJECT;
+            if (nextNonWhitespace() != ':') {
+                throw syntaxError("Expected ':'");
+            }
+            c = nextNonWhitespace();
+            break;
+        case EMPTY_DOCUMENT:
+            stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+            c = nextNonWhitespace();
+            break;
+        default:
+            if (nextNonWhitespace() != -1) {
+                throw syntaxError("Unexpected text after the end of the document");
+            }
+            return peeked = Token.END_DOCUMENT;
+        }
+        return peeked = readValueToken(c);
+    }
+
+    /**
+     * Reads the start of a value, whose first character {@code c} has been consumed.
+     */
+    private Token readValueToken(int c) throws IOException {
+        switch (c) {
+        case -1:
+            throw syntaxError("Unexpected end of input");
+        case '{':
+            return Token.BEGIN_OBJECT;
+        case '[':
+            return Token.BEGIN_ARRAY;
+        case '"':
+            peekedText = readString();
+            return Token.STRING;
+        default:
+            break;
+        }
+        pos--;
+        peekedText = readLiteral();
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            return Token.NUMBER;
+        }
+        switch (peekedText) {
+        case "true", "false":
+            return Token.BOOLEAN;
+        case "null":
+            return Token.NULL;
+        default:
+            throw syntaxError("Unexpected value \"" + peekedText + '"');
+        }
+    }
+
+    private void expect(Token token) throws IOException {
+        if (peek() != token) {
+            throw syntaxError("Expected " + token + " but was " + peeked);
+        }
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    /**
+     * Consumes the start of an object.
+     *
+     * @throws IOException   if reading fails
+     * @throws JSONException if the next token is not the start of an object
+     */
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of the current object.
+     *
+     * @throws IOException   if reading fails
+     * @throws JSONException if the object has more members
+     */
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+    }
+
+    /**
+     * Consumes the start of an array.
+     *
+     * @throws IOException   if reading fails
+     * @throws JSONException if the next token is not the start of an array
+     */
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of the current array.
+     *
+     * @throws IOException   if reading fails
+     * @throws JSONException if the array has more elements
+     */
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+    }
+
+    /**
+     * Returns whether the current object or array has another member or element.
+     *
+     * @return {@code true} if there is more to read in the current scope
+     * @throws IOException   if reading fails
+     * @throws JSONException if the input is not valid JSON
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the name of the next member of the current object.
+     *
+     * @return the member name
+     * @throws IOException   if reading fails
+     * @throws JSONException if the next token is not a name
+     */
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return peekedText;
+    }
+
+    /**
+     * Consumes the next value, including everything nested in it.
+     * Objects and arrays are returned as {@link JSONObject} and {@link JSONArray},
+     * numbers as by {@link JSONObject#stringToValue(String)} and {@code null} as {@link JSONObject#NULL}.
+     *
+     * @return the value
+     * @throws IOException   if reading fails
+     * @throws JSONException if the input is not valid JSON
+     */
+    public Object nextValue() throws IOException {
+        Token token = peek();
+        switch (token) {
+        case BEGIN_OBJECT: {
+            beginObject();
+            JSONObject object = new JSONObject();
+            while (hasNext()) {
+                String name = nextName();
+                object.put(name, nextValue());
+            }
+            endObject();
+            return object;
+        }
+        case BEGIN_ARRAY: {
+            beginArray();
+            JSONArray array = new JSONArray();
+            while (hasNext()) {
+                array.put(nextValue());
+            }
+            endArray();
+            return array;
+        }
+        case STRING:
+            peeked = null;
+            return peekedText;
+        case NUMBER, BOOLEAN, NULL:
+            peeked = null;
+            return JSONObject.stringToValue(peekedText);
+        default:
+            throw syntaxError("Expected a value but was " + token);
+        }
+    }
+
+    /**
+     * Consumes and discards the next value.
+     *
+     * @throws IOException   if reading fails
+     * @throws JSONException if the input is not valid JSON
+     */
+    public void skipValue() throws IOException {
+        nextValue();
+    }
+
+    private boolean fill() throws IOException {
+        bufferOffset += limit;
+        pos = 0;
+        limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+        return limit > 0;
+    }
+
+    /**
+     * Consumes whitespace and returns the character after it, or -1 at the end of input.
+     */
+    private int nextNonWhitespace() throws IOException {
+        while (pos < limit || fill()) {
+            char c = buffer[pos++];
+            if (c == '\n') {
+                line++;
+                lineStart = bufferOffset + pos;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a number or {@code true}, {@code false} or {@code null}, up to the next delimiter.
+     */
+    private String readLiteral() throws IOException {
+        StringBuilder sb = null;
+        while (true) {
+            int start = pos;
+            while (pos < limit && isLiteralChar(buffer[pos])) {
+                pos++;
+            }
+            if (pos < limit) {
+                if (sb == null) {
+                    return new String(buffer, start, pos - start);
+                }
+                return sb.append(buffer, start, pos - start).toString();
+            }
+            if (sb == null) {
+                sb = new StringBuilder();
+            }
+            sb.append(buffer, start, pos - start);
+            if (!fill()) {
+                return sb.toString();
+            }
+        }
+    }
+
+    private static boolean isLiteralChar(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c == '-' || c == '+' || c == '.' || c == 'E';
+    }
+
+    /**
+     * Reads the rest of a string whose opening quote has been consumed.
+     * A string that lies within the buffer and has no escapes is copied out in one go.
+     */
+    private String readString() throws IOException {
+        StringBuilder sb = null;
+        while (true) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos];
+                if (c == '"') {
+                    pos++;
+                    if (sb == null) {
+                        return new String(buffer, start, pos - start - 1);
+                    }
+                    return sb.append(buffer, start, pos - start - 1).toString();
+                }
+                if (c == '\\' || c < 0x20) {
+                    break;
+                }
+                pos++;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(Math.max(16, (pos - start) * 2));
+            }
+            sb.append(buffer, start, pos - start);
+            if (pos == limit) {
+                if (!fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                continue;
+            }
+            char c = buffer[pos++];
+            if (c != '\\') {
+                throw syntaxError("Unescaped control character in string");
+            }
+            sb.append(readEscape());
+        }
+    }
+
+    private char readEscape() throws IOException {
+        if (pos == limit && !fill()) {
+            throw syntaxError("Unterminated string");
+        }
+        char c = buffer[pos++];
+        switch (c) {
+        case '"', '\\', '/':
+            return c;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+                if (pos == limit && !fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                int digit = Character.digit(buffer[pos++], 16);
+                if (digit < 0) {
+                    throw syntaxError("Invalid \\u escape");
+                }
+                code = code * 16 + digit;
+            }
+            return (char) code;
+        default:
+            throw syntaxError("Invalid escape \\" + c);
+        }
+    }
+
+    private JSONException syntaxError(String message) {
+        long column = bufferOffset + pos - lineStart;
+        return new JSONException(message + " at line " + line + " column " + column);
+    }
+
+    /**
+     * Closes the underlying reader.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
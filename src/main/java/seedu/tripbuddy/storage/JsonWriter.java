@@ -0,0 +1,251 @@
+package seedu.tripbuddy.storage;
+
+import org.json.JSONObject;
+import seedu.tripbuddy.dataclass.Money;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Writes a JSON document piece by piece, straight to a {@link Writer}.
+ * Unlike building a {@link JSONObject} and calling {@code toString}, nothing but the current nesting is kept in
+ * memory, so documents of any size can be written.
+ *
+ * Pretty-printed output is indented by 4 spaces, the same layout as {@code JSONObject.toString(4)}.
+ */
+public class JsonWriter implements Closeable {
+
+    private static final String INDENT = "    ";
+
+    private final Writer out;
+    private final boolean isPretty;
+    /** Whether the object or array at each depth already has an element. */
+    private boolean[] hasElement = new boolean[8];
+    private int depth = 0;
+    private boolean isAfterName = false;
+
+    /**
+     * Constructs a writer.
+     *
+     * @param out      the writer to write to, which should be buffered
+     * @param isPretty whether to put each element on its own, indented line
+     */
+    public JsonWriter(Writer out, boolean isPretty) {
+        this.out = out;
+        this.isPretty = isPretty;
+    }
+
+    /**
+     * Starts a new line at the current depth, if pretty-printing.
+     */
+    private void newline() throws IOException {
+        if (!isPretty) {
+            return;
+        }
+        out.write('\n');
+        for (int i = 0; i < depth; i++) {
+            out.write(INDENT);
+        }
+    }
+
+    /**
+     * Writes the comma and line break before an element of the current object or array.
+     */
+    private void beforeElement() throws IOException {
+        if (depth == 0) {
+            return;
+        }
+        if (hasElement[depth]) {
+            out.write(',');
+        }
+        hasElement[depth] = true;
+        newline();
+    }
+
+    /**
+     * Prepares for a value, which either follows a name or is an element of an array.
+     */
+    private void beforeValue() throws IOException {
+        if (isAfterName) {
+            isAfterName = false;
+            return;
+        }
+        beforeElement();
+    }
+
+    private JsonWriter openContainer(char bracket) throws IOException {
+        beforeValue();
+        out.write(bracket);
+        depth++;
+        if (depth == hasElement.length) {
+            hasElement = Arrays.copyOf(hasElement, depth * 2);
+        }
+        hasElement[depth] = false;
+        return this;
+    }
+
+    private JsonWriter closeContainer(char bracket) throws IOException {
+        assert depth > 0 && !isAfterName : "Nothing to close";
+        boolean hadElement = hasElement[depth];
+        depth--;
+        if (hadElement) {
+            newline();
+        }
+        out.write(bracket);
+        return this;
+    }
+
+    /**
+     * Starts an object.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter beginObject() throws IOException {
+        return openContainer('{');
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter endObject() throws IOException {
+        return closeContainer('}');
+    }
+
+    /**
+     * Starts an array.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter beginArray() throws IOException {
+        return openContainer('[');
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter endArray() throws IOException {
+        return closeContainer(']');
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name the member name
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter name(String name) throws IOException {
+        assert depth > 0 && !isAfterName : "A name must be followed by a value";
+        beforeElement();
+        string(name);
+        out.write(isPretty ? ": " : ":");
+        isAfterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or {@code null}.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            out.write("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a number value, formatted the same way as by {@link JSONObject}.
+     *
+     * @param value the value, which must be finite
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(double value) throws IOException {
+        assert Double.isFinite(value) : "JSON numbers must be finite";
+        beforeValue();
+        out.write(JSONObject.numberToString(value));
+        return this;
+    }
+
+    /**
+     * Writes a money amount as a number with exactly two decimal places, e.g. {@code 12.50}.
+     *
+     * @param cents the amount in cents
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter valueCents(long cents) throws IOException {
+        beforeValue();
+        out.append(Money.appendTo(new StringBuilder(24), cents));
+        return this;
+    }
+
+    /**
+     * Writes a quoted, escaped string. Runs of characters that need no escaping are written at once.
+     */
+    private void string(String s) throws IOException {
+        out.write('"');
+        int start = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20) {
+                escape = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            out.write(s, start, i - start);
+            out.write(escape);
+            start = i + 1;
+        }
+        out.write(s, start, length - start);
+        out.write('"');
+    }
+
+    /**
+     * Flushes the underlying writer.
+     *
+     * @throws IOException if flushing fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Closes the underlying writer.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
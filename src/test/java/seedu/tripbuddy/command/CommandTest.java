@@ -1,9 +1,11 @@
 package seedu.tripbuddy.command;
 
 import org.junit.jupiter.api.Test;
+import seedu.tripbuddy.exception.InvalidArgumentException;
 import seedu.tripbuddy.exception.MissingOptionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -57,6 +59,15 @@ class CommandTest {
         assertEquals(1, cmd.getOptCount());
     }
 
+    @Test
+    void testGetOptWithDefault() {
+        Command cmd = new Command(Keyword.EXPORT_CSV);
+        cmd.addOption(new Option("c", "food"));
+        assertEquals("food", cmd.getOpt("c", null));
+        assertNull(cmd.getOpt("f", null));
+        assertEquals("x", cmd.getOpt("f", "x"));
+    }
+
     @Test
     void testGetOptThrowsMissingOptionException() {
         Command cmd = new Command(Keyword.ADD_EXPENSE);
@@ -72,4 +83,26 @@ class CommandTest {
         Option opt3 = new Option("b", "");
         assertEquals("-b", opt3.toString());
     }
+
+    @Test
+    void parseIntTest() throws InvalidArgumentException, MissingOptionException {
+        Command cmd = new Command(Keyword.TOP_EXPENSE);
+        cmd.addOption(new Option("", "3"));
+        cmd.addOption(new Option("a", "0"));
+        cmd.addOption(new Option("b", "1.5"));
+        assertEquals(3, cmd.parseInt(""));
+        assertThrows(InvalidArgumentException.class, () -> cmd.parseInt("a"));
+        assertThrows(InvalidArgumentException.class, () -> cmd.parseInt("b"));
+        assertThrows(MissingOptionException.class, () -> cmd.parseInt("c"));
+    }
+
+    @Test
+    void parseIntTest_withMin() throws InvalidArgumentException, MissingOptionException {
+        Command cmd = new Command(Keyword.LIST_EXPENSE);
+        cmd.addOption(new Option("o", "0"));
+        cmd.addOption(new Option("l", "-1"));
+        assertEquals(0, cmd.parseInt("o", 0));
+        assertThrows(InvalidArgumentException.class, () -> cmd.parseInt("o", 1));
+        assertThrows(InvalidArgumentException.class, () -> cmd.parseInt("l", 0));
+    }
 }
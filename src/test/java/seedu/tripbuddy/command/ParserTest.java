@@ -88,4 +88,27 @@ class ParserTest {
         assertEquals("lunch", cmd.getOpt(""));
         assertEquals("2024-04-01 12:00:00", cmd.getOpt("t"));
     }
+
+    @Test
+    void parseCommandTest_tabsAndSpacesSeparateTokens() throws Exception {
+        Command cmd = parser.parseCommand("\tadd-expense\t lunch  box\t-a  12.5 ");
+        assertEquals(Keyword.ADD_EXPENSE, cmd.getKeyword(), "keyword");
+        assertEquals(2, cmd.getOptList().size(), "optList");
+        assertEquals("lunch  box", cmd.getOpt(""));
+        assertEquals("12.5", cmd.getOpt("a"));
+    }
+
+    @Test
+    void parseCommandTest_everyKeyword() throws InvalidKeywordException {
+        for (Keyword keyword : Keyword.values()) {
+            assertEquals(keyword, parser.parseCommand(keyword + " -a 1").getKeyword(), keyword.toString());
+        }
+    }
+
+    @Test
+    void parseCommandTest_keywordPrefixThrows() {
+        assertThrows(InvalidKeywordException.class, () -> parser.parseCommand("add-expens"));
+        assertThrows(InvalidKeywordException.class, () -> parser.parseCommand("add-expensee"));
+        assertThrows(InvalidKeywordException.class, () -> parser.parseCommand(""));
+    }
 }
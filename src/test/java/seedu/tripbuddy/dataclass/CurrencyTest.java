@@ -66,4 +66,35 @@ class CurrencyTest {
         // Check that valueOf throws NullPointerException for a null argument
         assertThrows(NullPointerException.class, () -> Currency.valueOf(null));
     }
+
+    @Test
+    void setBaseCurrency_ratesFollowNewBase() {
+        double usdPerSgd = Currency.USD.getRate();
+        Currency.setBaseCurrency(Currency.USD);
+        assertEquals(Currency.USD, Currency.getBaseCurrency());
+        assertEquals(1, Currency.USD.getRate(), 0.0001);
+        assertEquals(1 / usdPerSgd, Currency.SGD.getRate(), 0.0001);
+        assertEquals(10000, Currency.USD.toBaseCents(10000));
+        assertEquals(Money.toCents(100 * usdPerSgd), Currency.SGD.toBaseCents(10000));
+        Currency.setBaseCurrency(Currency.SGD);
+    }
+
+    @Test
+    void getFactorToBase_refreshedAfterRateChange() {
+        double originalRate = Currency.JPY.getRate();
+        assertEquals(1 / originalRate, Currency.JPY.getFactorToBase(), 0.0001);
+        int version = Currency.getRateTableVersion();
+        Currency.JPY.setRate(100);
+        assertEquals(version + 1, Currency.getRateTableVersion());
+        assertEquals(0.01, Currency.JPY.getFactorToBase(), 0.0001);
+        Currency.JPY.setRate(originalRate);
+    }
+
+    @Test
+    void sumToBaseCents_convertsEachCurrencyOnce() {
+        long[] cents = new long[Currency.values().length];
+        cents[Currency.SGD.ordinal()] = 150;
+        cents[Currency.USD.ordinal()] = 7400;
+        assertEquals(150 + Currency.USD.toBaseCents(7400), Currency.sumToBaseCents(cents));
+    }
 }
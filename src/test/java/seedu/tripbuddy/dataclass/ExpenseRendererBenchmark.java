@@ -0,0 +1,79 @@
+package seedu.tripbuddy.dataclass;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the time taken to format expense rows with {@link ExpenseRenderer} against the previous
+ * {@code String.format} based {@link Expense#toString()}.
+ * Tagged {@code benchmark}, so it is skipped by {@code gradlew test}; run it with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ExpenseRendererBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int ROUNDS = 10;
+
+    /**
+     * Formats a row the way {@link Expense#toString()} did before the renderer existed.
+     */
+    private static String formatWithStringFormat(Expense expense) {
+        String dateTimeStr = expense.getDateTime().format(Expense.FORMATTER);
+        Currency baseCurrency = Currency.getBaseCurrency();
+        String amount = String.format("%.2f", expense.getAmount()) + " " + baseCurrency.getFullName();
+        if (expense.getCategory() == null) {
+            return "name: " + expense.getName() + ", amount: " + amount + ", date: " + dateTimeStr;
+        }
+        return "name: " + expense.getName() + ", amount: " + amount
+                + ", category: " + expense.getCategory() + ", date: " + dateTimeStr;
+    }
+
+    private static long timeStringFormat(List<Expense> expenses, long[] length) {
+        long start = System.nanoTime();
+        for (Expense expense : expenses) {
+            length[0] += formatWithStringFormat(expense).length();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long timeRenderer(List<Expense> expenses, long[] length) {
+        long start = System.nanoTime();
+        ExpenseRenderer renderer = new ExpenseRenderer();
+        for (Expense expense : expenses) {
+            length[0] += renderer.render(expense).length();
+        }
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    void render_comparedWithStringFormat() {
+        ArrayList<Expense> expenses = new ArrayList<>(ROWS);
+        LocalDateTime start = LocalDateTime.of(2025, 4, 1, 0, 0);
+        for (int i = 0; i < ROWS; i++) {
+            // a few expenses per second, as when importing a trip
+            expenses.add(new Expense("expense-" + i, (i % 100_000) / 100.0 + 1,
+                    i % 4 == 0 ? null : "category-" + i % 10, start.plusSeconds(i / 4)));
+        }
+
+        long bestOld = Long.MAX_VALUE;
+        long bestNew = Long.MAX_VALUE;
+        long[] oldLength = new long[1];
+        long[] newLength = new long[1];
+        for (int i = 0; i < ROUNDS; i++) {
+            bestOld = Math.min(bestOld, timeStringFormat(expenses, oldLength));
+            bestNew = Math.min(bestNew, timeRenderer(expenses, newLength));
+        }
+        // both formatters produce the same rows, which also keeps the work from being optimised away
+        assertEquals(oldLength[0], newLength[0]);
+        System.out.printf("rows: %d, best of %d rounds%n", ROWS, ROUNDS);
+        System.out.printf("String.format toString: %8.1f ns/row%n", (double) bestOld / ROWS);
+        System.out.printf("ExpenseRenderer:        %8.1f ns/row%n", (double) bestNew / ROWS);
+        System.out.printf("speed-up:               %8.1fx%n", (double) bestOld / bestNew);
+    }
+}
@@ -0,0 +1,55 @@
+package seedu.tripbuddy.dataclass;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import seedu.tripbuddy.framework.ExpenseManager;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ExpenseRendererTest {
+
+    @BeforeEach
+    void setUp() {
+        ExpenseManager.getInstance().clearExpensesAndCategories();
+    }
+
+    /**
+     * Formats a row the way {@link Expense#toString()} did before the renderer existed.
+     */
+    private static String formatWithStringFormat(Expense expense) {
+        String ret = "name: " + expense.getName() + ", amount: " + String.format("%.2f", expense.getAmount()) + " "
+                + Currency.getBaseCurrency().getFullName();
+        if (expense.getCategory() != null) {
+            ret += ", category: " + expense.getCategory();
+        }
+        return ret + ", date: " + expense.getDateTime().format(Expense.FORMATTER);
+    }
+
+    @Test
+    void render_matchesStringFormat() {
+        Random random = new Random(2113);
+        ExpenseRenderer renderer = new ExpenseRenderer();
+        LocalDateTime dateTime = LocalDateTime.of(2025, 4, 1, 9, 30, 15);
+        for (int i = 0; i < 1000; i++) {
+            double amount = random.nextInt(100_000_000) / 100.0;
+            String category = i % 3 == 0 ? null : "cat" + i % 7;
+            Expense expense = new Expense("e" + i, amount, category, dateTime.plusNanos(random.nextInt(1000))
+                    .plusSeconds(random.nextInt(3)));
+            assertEquals(formatWithStringFormat(expense), renderer.render(expense).toString());
+            assertEquals(formatWithStringFormat(expense), expense.toString());
+        }
+    }
+
+    @Test
+    void render_reusesBuilder() {
+        ExpenseRenderer renderer = new ExpenseRenderer();
+        StringBuilder first = renderer.render(new Expense("a", 1));
+        StringBuilder second = renderer.render(new Expense("b", 2));
+        assertSame(first, second);
+        assertEquals("b", second.substring("name: ".length(), "name: ".length() + 1));
+    }
+}
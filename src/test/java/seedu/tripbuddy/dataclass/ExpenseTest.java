@@ -44,6 +44,7 @@ class ExpenseTest {
         assertEquals(name, expense.getName());
         assertEquals(amount, expense.getAmount(), 0.0001);
         assertEquals(category, expense.getCategory());
+        assertEquals(Category.NO_ID, expense.getCategoryId());
         assertNotNull(expense.getDateTime());
     }
 
@@ -149,6 +150,21 @@ class ExpenseTest {
         assertEquals(dateTimeStr, expense.getDateTimeString());
     }
 
+    @Test
+    void testFromJSONDefaultCurrency() {
+        JSONObject json = new JSONObject();
+        json.put("name", "Noodles");
+        json.put("amount", 8);
+        json.put("dateTime", "2025-04-05 12:00:00");
+
+        Expense expense = assertDoesNotThrow(() -> Expense.fromJSON(json, Currency.USD));
+        assertEquals(Currency.USD, expense.getCurrency());
+        assertEquals(800, expense.getOriginalAmountCents());
+
+        json.put("currency", "JPY");
+        assertEquals(Currency.JPY, assertDoesNotThrow(() -> Expense.fromJSON(json, Currency.USD)).getCurrency());
+    }
+
     @Test
     public void setDateTime_validDateTime_success() {
         Expense expense = new Expense("flight", 300.00);
@@ -156,4 +172,24 @@ class ExpenseTest {
         expense.setDateTime(newTime);
         assertEquals(newTime, expense.getDateTime());
     }
+
+    @Test
+    void testJSONRoundTripKeepsCurrency() {
+        Currency base = Currency.getBaseCurrency();
+        JSONObject json = new JSONObject();
+        json.put("name", "Ramen");
+        json.put("amount", 980);
+        json.put("currency", "JPY");
+        json.put("dateTime", "2025-04-05 12:00:00");
+
+        Expense expense = assertDoesNotThrow(() -> Expense.fromJSON(json));
+        assertEquals(Currency.JPY, expense.getCurrency());
+        assertEquals(98000, expense.getOriginalAmountCents());
+        assertEquals(Currency.JPY.toBaseCents(98000), expense.getAmountCents());
+
+        JSONObject saved = expense.toJSON();
+        assertEquals("JPY", saved.getString("currency"));
+        assertEquals(980, saved.getDouble("amount"), 0.0001);
+        assertEquals(base, Currency.getBaseCurrency());
+    }
 }
@@ -0,0 +1,45 @@
+package seedu.tripbuddy.dataclass;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoneyTest {
+
+    @Test
+    void toCents_roundsHalfAwayFromZero() {
+        assertEquals(1235, Money.toCents(12.345));
+        assertEquals(-1235, Money.toCents(-12.345));
+        assertEquals(10, Money.toCents(0.1));
+        assertEquals(0, Money.toCents(0.004));
+    }
+
+    @Test
+    void toAmount_roundTrip() {
+        assertEquals(12.34, Money.toAmount(1234));
+        assertEquals(1234, Money.toCents(Money.toAmount(1234)));
+    }
+
+    @Test
+    void sum_isExact() {
+        long total = 0;
+        for (int i = 0; i < 1000; i++) {
+            total += Money.toCents(0.1);
+        }
+        assertEquals(100.0, Money.toAmount(total));
+    }
+
+    @Test
+    void convert_roundsToCent() {
+        assertEquals(7400, Money.convert(10000, 0.74));
+        assertEquals(33, Money.convert(100, 1.0 / 3));
+    }
+
+    @Test
+    void format_matchesStringFormat() {
+        long[] samples = {0, 5, 10, 99, 100, 101, 1234, 100_000_000, -5, -1234};
+        for (long cents : samples) {
+            assertEquals(String.format("%.2f", Money.toAmount(cents)), Money.format(cents));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package seedu.tripbuddy.dataclass;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimestampTest {
+
+    @Test
+    void parseAndFormat_matchFormatter() {
+        Random random = new Random(2113);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = LocalDateTime.of(1 + random.nextInt(9999), 1 + random.nextInt(12), 1,
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60))
+                    .plusDays(random.nextInt(31));
+            String text = dateTime.format(Timestamp.FORMATTER);
+            assertEquals(text, Timestamp.format(dateTime));
+            assertEquals(dateTime, Timestamp.parse(text));
+        }
+    }
+
+    @Test
+    void format_ignoresNanosAndAppends() {
+        LocalDateTime dateTime = LocalDateTime.of(2025, 4, 1, 9, 5, 7, 999_999_999);
+        assertEquals("at 2025-04-01 09:05:07", Timestamp.appendTo(new StringBuilder("at "), dateTime).toString());
+    }
+
+    @Test
+    void parse_range() {
+        assertEquals(LocalDateTime.of(2025, 4, 1, 12, 0),
+                Timestamp.parse("time=2025-04-01 12:00:00;", 5, 24));
+    }
+
+    @Test
+    void parse_layoutErrors() {
+        String[] texts = {"2025-4-01 00:00:00", "12025-01-01 00:00:00", " 2025-04-01 00:00:00",
+            "2025-04-01T00:00:00", "2025-04-01 00:00", "", "2025-04-01 00:00:0x", "2025-04-01 00:00:00 "};
+        int[] indexes = {5, 4, 0, 10, 16, 0, 17, 19};
+        for (int i = 0; i < texts.length; i++) {
+            String text = texts[i];
+            assertThrows(DateTimeParseException.class, () -> LocalDateTime.parse(text, Timestamp.FORMATTER));
+            DateTimeParseException e = assertThrows(DateTimeParseException.class, () -> Timestamp.parse(text));
+            assertEquals(text, e.getParsedString());
+            assertEquals(indexes[i], e.getErrorIndex());
+        }
+    }
+
+    @Test
+    void parse_rangeErrorsMatchFormatter() {
+        for (String text : new String[] {"2025-13-01 00:00:00", "2025-04-32 00:00:00", "2025-04-01 25:00:00",
+            "2025-04-01 00:60:00", "2025-04-01 00:00:60", "0000-01-01 00:00:00"}) {
+            DateTimeParseException expected = assertThrows(DateTimeParseException.class,
+                    () -> LocalDateTime.parse(text, Timestamp.FORMATTER));
+            DateTimeParseException actual = assertThrows(DateTimeParseException.class, () -> Timestamp.parse(text));
+            assertEquals(expected.getMessage(), actual.getMessage());
+        }
+    }
+
+    @Test
+    void parse_strict() {
+        // DateTimeFormatter would quietly turn these into 2025-02-28 and 2025-04-02 00:00:00
+        assertThrows(DateTimeParseException.class, () -> Timestamp.parse("2025-02-30 00:00:00"));
+        assertThrows(DateTimeParseException.class, () -> Timestamp.parse("2025-04-01 24:00:00"));
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0), Timestamp.parse("2024-02-29 00:00:00"));
+    }
+}
@@ -0,0 +1,113 @@
+package seedu.tripbuddy.framework;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLogHandlerTest {
+
+    /**
+     * Collects published records, optionally waiting for a latch before the first one.
+     */
+    private static class CollectingHandler extends Handler {
+        private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+        private final CountDownLatch gate;
+        private volatile boolean isClosed = false;
+
+        CollectingHandler(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+    }
+
+    @Test
+    void flush_writesRecordsInOrder() {
+        CollectingHandler target = new CollectingHandler(new CountDownLatch(0));
+        AsyncLogHandler handler = new AsyncLogHandler(target, 16, AsyncLogHandler.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "msg " + i));
+        }
+        handler.flush();
+        assertEquals(100, target.records.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("msg " + i, target.records.get(i).getMessage());
+        }
+        handler.close();
+        assertTrue(target.isClosed);
+    }
+
+    @Test
+    void publish_dropsWhenFullWithoutBlocking() {
+        CountDownLatch gate = new CountDownLatch(1);
+        CollectingHandler target = new CollectingHandler(gate);
+        AsyncLogHandler handler = new AsyncLogHandler(target, 2, AsyncLogHandler.OverflowPolicy.DROP);
+        // The stuck writer holds at most 3 records and the queue 2 more
+        for (int i = 0; i < 10; i++) {
+            handler.publish(new LogRecord(Level.INFO, "msg " + i));
+        }
+        long dropped = handler.getDroppedCount();
+        assertTrue(dropped >= 5);
+        gate.countDown();
+        handler.close();
+
+        List<LogRecord> records = target.records;
+        assertEquals(1, records.stream().filter(r -> r.getLevel() == Level.WARNING
+                && r.getMessage().startsWith(dropped + " log records dropped")).count());
+        assertEquals(10, records.size() - 1 + dropped);
+    }
+
+    @Test
+    void flush_afterDrops_doesNotWaitForDroppedRecords() {
+        CountDownLatch gate = new CountDownLatch(1);
+        CollectingHandler target = new CollectingHandler(gate);
+        AsyncLogHandler handler = new AsyncLogHandler(target, 2, AsyncLogHandler.OverflowPolicy.DROP);
+        for (int i = 0; i < 10; i++) {
+            handler.publish(new LogRecord(Level.INFO, "msg " + i));
+        }
+        long dropped = handler.getDroppedCount();
+        gate.countDown();
+        long start = System.nanoTime();
+        handler.flush();
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        assertEquals(10, target.records.stream().filter(r -> r.getLevel() == Level.INFO).count() + dropped);
+        handler.close();
+    }
+
+    @Test
+    void publish_belowLevelIgnored() {
+        CollectingHandler target = new CollectingHandler(new CountDownLatch(0));
+        AsyncLogHandler handler = new AsyncLogHandler(target, 16, AsyncLogHandler.OverflowPolicy.DROP);
+        handler.setLevel(Level.INFO);
+        handler.publish(new LogRecord(Level.FINE, "hidden"));
+        handler.publish(new LogRecord(Level.INFO, "shown"));
+        handler.close();
+        assertEquals(1, target.records.size());
+        assertEquals("shown", target.records.get(0).getMessage());
+    }
+}
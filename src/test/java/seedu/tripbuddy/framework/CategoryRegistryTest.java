@@ -0,0 +1,59 @@
+package seedu.tripbuddy.framework;
+
+import org.junit.jupiter.api.Test;
+import seedu.tripbuddy.dataclass.Expense;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategoryRegistryTest {
+
+    @Test
+    void register_sameName_returnsSameIdAndInstance() {
+        CategoryRegistry registry = new CategoryRegistry();
+        int food = registry.register("food");
+        int transport = registry.register("transport");
+        assertEquals(food, registry.register(new String("food")));
+        assertSame(registry.getName(food), registry.getName(registry.getId(new String("food"))));
+        assertSame(registry.getCategory(food), registry.getCategory(registry.getId("food")));
+        assertEquals(food, registry.getCategory(food).getId());
+        assertEquals(1, transport - food);
+        assertEquals(List.of("food", "transport"), registry.getNames());
+    }
+
+    @Test
+    void remove_keepsIdForRecreatedCategory() {
+        CategoryRegistry registry = new CategoryRegistry();
+        int food = registry.register("food");
+        registry.register("transport");
+        registry.remove(food);
+        assertFalse(registry.contains("food"));
+        assertEquals(CategoryRegistry.NO_ID, registry.getId("food"));
+        assertEquals(List.of("transport"), registry.getNames());
+        assertEquals(food, registry.register("food"));
+        assertTrue(registry.contains("food"));
+    }
+
+    @Test
+    void members_trackCountAndTotal() {
+        CategoryRegistry registry = new CategoryRegistry();
+        int food = registry.register("food");
+        Expense lunch = new Expense("lunch", 12.5);
+        Expense dinner = new Expense("dinner", 20);
+        registry.addMember(food, lunch);
+        registry.addMember(food, dinner);
+        registry.addMember(food, dinner);
+        assertEquals(2, registry.getCount(food));
+        assertEquals(3250, registry.getTotalCents(food));
+
+        registry.adjustTotal(food, dinner.getCurrency(), 750);
+        registry.removeMember(food, lunch);
+        assertEquals(1, registry.getCount(food));
+        assertEquals(List.of(dinner), registry.getMembers(food));
+        assertEquals(2750, registry.getTotalCents(food));
+    }
+}
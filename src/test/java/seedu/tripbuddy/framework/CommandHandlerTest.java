@@ -1,5 +1,10 @@
 package seedu.tripbuddy.framework;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -9,6 +14,7 @@ import java.util.logging.Logger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import seedu.tripbuddy.dataclass.Currency;
 import seedu.tripbuddy.dataclass.Expense;
 import seedu.tripbuddy.exception.InvalidArgumentException;
@@ -255,4 +261,80 @@ class CommandHandlerTest {
         assertThrows(DateTimeParseException.class, () ->
                 commandHandler.handleSetTime(name, invalidTime));
     }
+
+    @Test
+    void handleTopExpenseTest() throws InvalidArgumentException {
+        expenseManager.addExpense("a", 10);
+        expenseManager.addExpense("b", 30);
+        expenseManager.addExpense("c", 20);
+        String expected = "Top 2 expense(s) by amount:" +
+                "\n - " + expenseManager.getExpense(1) +
+                "\n - " + expenseManager.getExpense(2);
+        assertEquals(expected, commandHandler.handleTopExpense(2));
+    }
+
+    @Test
+    void handleBottomExpenseTest() throws InvalidArgumentException {
+        expenseManager.addExpense("a", 10);
+        expenseManager.addExpense("b", 30);
+        String expected = "Bottom 2 expense(s) by amount:" +
+                "\n - " + expenseManager.getExpense(0) +
+                "\n - " + expenseManager.getExpense(1);
+        assertEquals(expected, commandHandler.handleBottomExpense(5));
+    }
+
+    @Test
+    void handleListExpense_page() throws InvalidArgumentException {
+        for (int i = 0; i < 5; i++) {
+            expenseManager.addExpense("e" + i, 10);
+        }
+        List<Expense> expenses = expenseManager.getExpenses();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        commandHandler.handleListExpense(null, 1, 2, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        String expected = "Here is a list of your past expenses: " +
+                "\n - " + expenses.get(1) +
+                "\n - " + expenses.get(2) +
+                "\n(Showing 2 to 3 of 5. Use -o 3 to see more.)" +
+                "\nTotal amount spent: 50.00 SGD.";
+        assertEquals(expected, buffer.toString(StandardCharsets.UTF_8));
+
+        buffer.reset();
+        commandHandler.handleSearch("e", 5, 2, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        assertEquals("Expenses that matched your search word 'e':\n(No expenses after the first 5.)",
+                buffer.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void handleListExpense_missingCategoryWritesNothing() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        assertThrows(InvalidArgumentException.class, () -> commandHandler.handleListExpense("missing", 0,
+                CommandHandler.NO_LIMIT, new PrintStream(buffer, true, StandardCharsets.UTF_8)));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void handleExportCsv_filtersByCategoryAndTime(@TempDir Path dir) throws Exception {
+        expenseManager.addExpense(new Expense("a", 1, Currency.SGD, "food",
+                LocalDateTime.of(2025, 4, 1, 10, 0)));
+        expenseManager.addExpense(new Expense("b", 2, Currency.SGD, "food",
+                LocalDateTime.of(2025, 4, 2, 10, 0)));
+        expenseManager.addExpense(new Expense("c", 3, Currency.SGD, "taxi",
+                LocalDateTime.of(2025, 4, 1, 11, 0)));
+        Path file = dir.resolve("food.tsv");
+
+        String message = commandHandler.handleExportCsv(file.toString(), "food", "2025-04-01 00:00:00",
+                "2025-04-01 23:59:59", "name,amount");
+        assertEquals("Exported 1 expense to " + file.toAbsolutePath() + ".", message);
+        assertEquals("name\tamount\na\t1.00\n", Files.readString(file));
+
+        commandHandler.handleExportCsv(file.toString(), null, null, null, null);
+        assertEquals(4, Files.readAllLines(file).size());
+
+        assertThrows(InvalidArgumentException.class,
+                () -> commandHandler.handleExportCsv(file.toString(), "none", null, null, null));
+        assertThrows(InvalidArgumentException.class, () -> commandHandler.handleExportCsv(file.toString(), null,
+                "2025-04-02 00:00:00", "2025-04-01 00:00:00", null));
+        assertThrows(DateTimeParseException.class,
+                () -> commandHandler.handleExportCsv(file.toString(), null, "yesterday", null, null));
+    }
 }
@@ -1,17 +1,27 @@
 package seedu.tripbuddy.framework;
 
+import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import seedu.tripbuddy.dataclass.Category;
+import seedu.tripbuddy.dataclass.Currency;
 import seedu.tripbuddy.dataclass.Expense;
+import seedu.tripbuddy.dataclass.Money;
 import seedu.tripbuddy.exception.InvalidArgumentException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -166,9 +176,9 @@ class ExpenseManagerTest {
         expenseManager.addExpense("expense3", 300);
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        expenseManager.getExpenses().get(0).setDateTime(LocalDateTime.parse("2025-04-01 10:00:00", formatter));
-        expenseManager.getExpenses().get(1).setDateTime(LocalDateTime.parse("2025-04-03 15:30:00", formatter));
-        expenseManager.getExpenses().get(2).setDateTime(LocalDateTime.parse("2025-04-05 20:00:00", formatter));
+        expenseManager.setExpenseDateTime("expense1", LocalDateTime.parse("2025-04-01 10:00:00", formatter));
+        expenseManager.setExpenseDateTime("expense2", LocalDateTime.parse("2025-04-03 15:30:00", formatter));
+        expenseManager.setExpenseDateTime("expense3", LocalDateTime.parse("2025-04-05 20:00:00", formatter));
 
         LocalDateTime start = LocalDateTime.parse("2025-04-01 00:00:00", formatter);
         LocalDateTime end = LocalDateTime.parse("2025-04-04 23:59:59", formatter);
@@ -194,8 +204,8 @@ class ExpenseManagerTest {
         expenseManager.addExpense("expenseB", 200);
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        expenseManager.getExpenses().get(0).setDateTime(LocalDateTime.parse("2025-03-25 09:00:00", formatter));
-        expenseManager.getExpenses().get(1).setDateTime(LocalDateTime.parse("2025-03-30 18:00:00", formatter));
+        expenseManager.setExpenseDateTime("expenseA", LocalDateTime.parse("2025-03-25 09:00:00", formatter));
+        expenseManager.setExpenseDateTime("expenseB", LocalDateTime.parse("2025-03-30 18:00:00", formatter));
 
         LocalDateTime start = LocalDateTime.parse("2025-04-01 00:00:00", formatter);
         LocalDateTime end = LocalDateTime.parse("2025-04-05 23:59:59", formatter);
@@ -278,4 +288,521 @@ class ExpenseManagerTest {
         );
         assertEquals("Expense with name `airplane` does not exist.", thrown.getMessage());
     }
+
+    @Test
+    void addExpenseTest_sameNameDifferentCase_expectInvalidArgumentException() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.addExpense("Lunch", 10);
+        assertThrows(InvalidArgumentException.class, () -> expenseManager.addExpense("lunch", 1));
+        assertThrows(InvalidArgumentException.class, () -> expenseManager.addExpense("LUNCH", 1, "food"));
+        assertEquals(1, expenseManager.getExpenses().size());
+    }
+
+    @Test
+    void nameIndex_matchesLinearScan() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        ArrayList<Expense> reference = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            if (i % 3 == 0) {
+                expenseManager.addExpense("Item" + i, i + 1, "cat" + i % 7);
+            } else {
+                expenseManager.addExpense("Item" + i, i + 1);
+            }
+        }
+        reference.addAll(expenseManager.getExpenses());
+
+        // Mutate through the index using a different case, and mirror each step with a linear scan.
+        for (int i = 0; i < 300; i += 4) {
+            String name = "ITEM" + i;
+            expenseManager.deleteExpense(name);
+            reference.removeIf(expense -> expense.getName().equalsIgnoreCase(name));
+        }
+        for (int i = 1; i < 300; i += 5) {
+            String name = "item" + i;
+            if (reference.stream().noneMatch(expense -> expense.getName().equalsIgnoreCase(name))) {
+                assertThrows(InvalidArgumentException.class, () -> expenseManager.editExpenseAmount(name, 2));
+                continue;
+            }
+            expenseManager.editExpenseAmount(name, 2);
+            expenseManager.setExpenseCategory(name, "edited");
+        }
+
+        assertEquals(reference, expenseManager.getExpenses());
+        for (int i = 0; i < reference.size(); i++) {
+            assertEquals(reference.get(i), expenseManager.getExpense(i));
+        }
+        double expectedTotal = 0;
+        for (Expense expense : reference) {
+            expectedTotal += expense.getAmount();
+        }
+        assertEquals(expectedTotal, expenseManager.getTotalExpense(), 0.001);
+        for (int i = 1; i < 300; i += 5) {
+            String name = "Item" + i;
+            for (Expense expense : reference) {
+                if (expense.getName().equals(name)) {
+                    assertEquals(2, expense.getAmount());
+                    assertEquals("edited", expense.getCategory());
+                }
+            }
+        }
+    }
+
+    @Test
+    void categoryIndex_matchesLinearScan() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.createCategory("empty");
+        for (int i = 0; i < 100; i++) {
+            expenseManager.addExpense("item" + i, i + 1, "cat" + i % 3);
+        }
+        JSONObject expObj = new JSONObject();
+        expObj.put("name", "loaded");
+        expObj.put("amount", 5);
+        expObj.put("category", "cat1");
+        expObj.put("dateTime", "2025-04-05 12:00:00");
+        expenseManager.addExpense(expObj);
+        for (int i = 0; i < 100; i += 7) {
+            expenseManager.setExpenseCategory("item" + i, "cat" + (i + 1) % 3);
+        }
+        for (int i = 0; i < 100; i += 11) {
+            expenseManager.clearCategory("item" + i);
+        }
+        for (int i = 0; i < 100; i += 13) {
+            expenseManager.deleteExpense("item" + i);
+        }
+
+        for (String category : List.of("cat0", "cat1", "cat2", "empty")) {
+            HashSet<Expense> expected = new HashSet<>();
+            for (Expense expense : expenseManager.getExpenses()) {
+                if (category.equals(expense.getCategory())) {
+                    expected.add(expense);
+                }
+            }
+            List<Expense> actual = expenseManager.getExpensesByCategory(category);
+            assertEquals(expected.size(), actual.size(), category);
+            assertEquals(expected, new HashSet<>(actual), category);
+        }
+        assertTrue(expenseManager.deleteCategory("empty"));
+        assertFalse(expenseManager.deleteCategory("cat1"));
+    }
+
+    @Test
+    void deleteCategory_afterMembersLeave_deletesCategory() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.addExpense("greek-meal", 10, "food");
+        expenseManager.addExpense("ramen", 12, "food");
+        expenseManager.setExpenseCategory("greek-meal", "dining");
+        expenseManager.deleteExpense("ramen");
+        assertTrue(expenseManager.deleteCategory("food"));
+        assertFalse(expenseManager.getCategories().contains("food"));
+        assertThrows(InvalidArgumentException.class, () -> expenseManager.getExpensesByCategory("food"));
+    }
+
+    @Test
+    void getExpensesByDateRange_matchesLinearScanInTimeOrder() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0, 0);
+        for (int i = 0; i < 200; i++) {
+            expenseManager.addExpense("item" + i, i + 1);
+            // Spread timestamps out of insertion order, with some duplicates
+            expenseManager.setExpenseDateTime("item" + i, base.plusHours(i * 37 % 101));
+        }
+        for (int i = 0; i < 200; i += 9) {
+            expenseManager.deleteExpense("item" + i);
+        }
+        for (int i = 1; i < 200; i += 10) {
+            String name = expenseManager.getExpenses().get(i % 50).getName();
+            expenseManager.setExpenseDateTime(name, base.plusHours(i % 13));
+        }
+
+        LocalDateTime start = base.plusHours(5);
+        LocalDateTime end = base.plusHours(60);
+        List<Expense> expected = new ArrayList<>();
+        for (Expense expense : expenseManager.getExpenses()) {
+            LocalDateTime dateTime = expense.getDateTime();
+            if (!dateTime.isBefore(start) && !dateTime.isAfter(end)) {
+                expected.add(expense);
+            }
+        }
+        List<Expense> actual = expenseManager.getExpensesByDateRange(start, end);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        for (int i = 1; i < actual.size(); i++) {
+            assertFalse(actual.get(i).getDateTime().isBefore(actual.get(i - 1).getDateTime()));
+        }
+    }
+
+    @Test
+    void getExpensesByDateRange_startAfterEnd_returnsEmptyList() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.addExpense("expense1", 100);
+        LocalDateTime now = LocalDateTime.now();
+        assertTrue(expenseManager.getExpensesByDateRange(now.plusDays(1), now.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void maxMinExpense_afterMutations_matchesLinearScan() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        for (int i = 0; i < 100; i++) {
+            expenseManager.addExpense("item" + i, i * 31 % 97 + 1);
+        }
+        expenseManager.deleteExpense("item" + 32);
+        expenseManager.editExpenseAmount("item5", 500);
+        expenseManager.editExpenseAmount("item6", 0.5);
+        for (Expense expense : expenseManager.getExpenses()) {
+            expenseManager.editExpenseAmount(expense.getName(), expense.getAmount() * 2);
+        }
+
+        Expense max = null;
+        Expense min = null;
+        for (Expense expense : expenseManager.getExpenses()) {
+            if (max == null || expense.getAmount() > max.getAmount()) {
+                max = expense;
+            }
+            if (min == null || expense.getAmount() < min.getAmount()) {
+                min = expense;
+            }
+        }
+        assertEquals(max, expenseManager.getMaxExpense());
+        assertEquals(min, expenseManager.getMinExpense());
+        assertEquals("item5", expenseManager.getMaxExpense().getName());
+        assertEquals("item6", expenseManager.getMinExpense().getName());
+    }
+
+    @Test
+    void getTopAndBottomExpenses() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.addExpense("a", 30);
+        expenseManager.addExpense("b", 10);
+        expenseManager.addExpense("c", 20);
+        expenseManager.addExpense("d", 20);
+
+        List<Expense> top = expenseManager.getTopExpenses(3);
+        assertEquals(List.of("a", "c", "d"), top.stream().map(Expense::getName).toList());
+        List<Expense> bottom = expenseManager.getBottomExpenses(2);
+        assertEquals(List.of("b", "c"), bottom.stream().map(Expense::getName).toList());
+        assertEquals(4, expenseManager.getTopExpenses(10).size());
+    }
+
+    @Test
+    void getTopExpenses_emptyExpenses_throwsException() {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        assertThrows(InvalidArgumentException.class, () -> expenseManager.getTopExpenses(1));
+        assertThrows(InvalidArgumentException.class, () -> expenseManager.getBottomExpenses(1));
+    }
+
+    @Test
+    void getExpensesBySearchword_matchesLinearScan() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        String[] words = {"Lunch", "dinner", "LUNCH-buffet", "taxi", "Taxi to airport", "hotel", "lun", "nch"};
+        for (int i = 0; i < 120; i++) {
+            expenseManager.addExpense(words[i % words.length] + " " + i, i + 1);
+        }
+        for (int i = 0; i < 120; i += 7) {
+            expenseManager.deleteExpense(words[i % words.length] + " " + i);
+        }
+
+        String[] queries = {"", "l", "Lu", "lunch", "NCH", "taxi to", "1", "11", "buffet 10", "xyz", "o a"};
+        for (String query : queries) {
+            List<Expense> expected = new ArrayList<>();
+            for (Expense expense : expenseManager.getExpenses()) {
+                if (expense.getName().toLowerCase().contains(query.toLowerCase())) {
+                    expected.add(expense);
+                }
+            }
+            assertEquals(expected, expenseManager.getExpensesBySearchword(query), query);
+        }
+    }
+
+    @Test
+    void categoryRegistry_internsNamesAndTracksTotals() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.addExpense("lunch", 10, new String("food"));
+        expenseManager.addExpense("dinner", 20, new String("food"));
+        expenseManager.addExpense("taxi", 5);
+        expenseManager.setExpenseCategory("taxi", new String("food"));
+        assertSame(expenseManager.getExpense(0).getCategory(), expenseManager.getExpense(1).getCategory());
+        assertSame(expenseManager.getExpense(0).getCategory(), expenseManager.getExpense(2).getCategory());
+        int food = expenseManager.getCategoryId("food");
+        assertEquals(food, expenseManager.getExpense(0).getCategoryId());
+        assertEquals(food, expenseManager.getExpense(2).getCategoryId());
+
+        expenseManager.editExpenseAmount("dinner", 25);
+        expenseManager.clearCategory("lunch");
+        assertEquals(Category.NO_ID, expenseManager.getExpense(0).getCategoryId());
+        assertEquals(2, expenseManager.getCategoryCount("food"));
+        assertEquals(30, expenseManager.getCategoryTotal("food"), 0.001);
+        expenseManager.deleteExpense("taxi");
+        assertEquals(1, expenseManager.getCategoryCount("food"));
+        assertEquals(25, expenseManager.getCategoryTotal("food"), 0.001);
+        assertThrows(InvalidArgumentException.class, () -> expenseManager.getCategoryTotal("missing"));
+    }
+
+    @Test
+    void totals_exactInCents() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.setBudget(1000);
+        for (int i = 0; i < 100; i++) {
+            expenseManager.addExpense("e" + i, 0.1, "food");
+        }
+        for (int i = 0; i < 100; i++) {
+            expenseManager.editExpenseAmount("e" + i, 0.2);
+            expenseManager.editExpenseAmount("e" + i, 0.1);
+        }
+        expenseManager.editExpenseAmount("e0", 0.3);
+        assertEquals(10.2, expenseManager.getTotalExpense());
+        assertEquals(10.2, expenseManager.getCategoryTotal("food"));
+        assertEquals(989.8, expenseManager.getRemainingBudget());
+        assertEquals(0.3, expenseManager.getMaxExpense().getAmount());
+    }
+
+    @Test
+    void setBaseCurrency_convertsOnReadWithoutDrift() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.setBaseCurrency(Currency.SGD);
+        expenseManager.setBudget(1000);
+        expenseManager.addExpense("hotel", 123.45, "stay");
+        expenseManager.addExpense("taxi", 7.77);
+        for (int i = 0; i < 50; i++) {
+            expenseManager.setBaseCurrency(Currency.JPY);
+            expenseManager.setBaseCurrency(Currency.USD);
+        }
+        assertEquals(Money.toAmount(Currency.SGD.toBaseCents(12345)), expenseManager.getExpense(0).getAmount());
+        expenseManager.addExpense("burger", 10, "food");
+        assertEquals(Currency.USD, expenseManager.getExpense(2).getCurrency());
+
+        expenseManager.setBaseCurrency(Currency.SGD);
+        assertEquals(123.45, expenseManager.getExpense(0).getAmount());
+        assertEquals(7.77, expenseManager.getExpense(1).getAmount());
+        assertEquals(1000, expenseManager.getBudget());
+        assertEquals(Money.toAmount(Currency.USD.toBaseCents(1000)), expenseManager.getCategoryTotal("food"));
+        assertEquals(Money.toAmount(12345 + 777 + Currency.USD.toBaseCents(1000)),
+                expenseManager.getTotalExpense());
+        assertSame(expenseManager.getExpense(0), expenseManager.getMaxExpense());
+        assertSame(expenseManager.getExpense(1), expenseManager.getMinExpense());
+    }
+
+    @Test
+    void maxMinExpense_afterRateChange_reorderedByNewRate() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.setBaseCurrency(Currency.SGD);
+        expenseManager.addExpense("hotel", 100);
+        expenseManager.addExpense(new Expense("tour", 90, Currency.USD, null, LocalDateTime.now()));
+        double usdRate = Currency.USD.getRate();
+        try {
+            Currency.USD.setRate(1);
+            assertEquals("hotel", expenseManager.getMaxExpense().getName());
+            Currency.USD.setRate(0.5);
+            assertEquals("tour", expenseManager.getMaxExpense().getName());
+            assertEquals("hotel", expenseManager.getMinExpense().getName());
+        } finally {
+            Currency.USD.setRate(usdRate);
+        }
+    }
+
+    @Test
+    void concurrentAccess_keepsInvariants() throws Exception {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        int writerCount = 4;
+        int perWriter = 200;
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> writers = new ArrayList<>();
+        ArrayList<Thread> readers = new ArrayList<>();
+
+        for (int w = 0; w < writerCount; w++) {
+            int id = w;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        String name = "t" + id + "-" + i;
+                        expenseManager.addExpense(name, i + 0.25, "cat" + (i % 3));
+                        expenseManager.editExpenseAmount(name, i + 1.5);
+                        if (i % 2 == 1) {
+                            expenseManager.deleteExpense(name);
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        for (int r = 0; r < 4; r++) {
+            readers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (isWriting.get()) {
+                        double total = expenseManager.getTotalExpense();
+                        assertTrue(total >= 0, "total should never be negative");
+                        for (Expense expense : expenseManager.getExpenses()) {
+                            assertTrue(expense.getAmount() > 0);
+                        }
+                        try {
+                            expenseManager.getExpensesByCategory("cat1");
+                            expenseManager.getMaxExpense();
+                            expenseManager.getTopExpenses(5);
+                        } catch (InvalidArgumentException e) {
+                            // nothing added yet
+                        }
+                        expenseManager.getExpensesBySearchword("t1-");
+                        expenseManager.getRemainingBudget();
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        readers.forEach(Thread::start);
+        writers.forEach(Thread::start);
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join(30_000);
+        }
+        isWriting.set(false);
+        for (Thread reader : readers) {
+            reader.join(30_000);
+        }
+        assertTrue(errors.isEmpty(), () -> "Concurrent access failed: " + errors.peek());
+
+        List<Expense> expenses = expenseManager.getExpenses();
+        assertEquals(writerCount * perWriter / 2, expenses.size());
+        long sumCents = 0;
+        double maxAmount = 0;
+        for (Expense expense : expenses) {
+            sumCents += expense.getAmountCents();
+            maxAmount = Math.max(maxAmount, expense.getAmount());
+        }
+        assertEquals(Money.toAmount(sumCents), expenseManager.getTotalExpense());
+        int categorized = 0;
+        for (String category : expenseManager.getCategories()) {
+            categorized += expenseManager.getCategoryCount(category);
+        }
+        assertEquals(expenses.size(), categorized);
+        assertEquals(maxAmount, expenseManager.getMaxExpense().getAmount());
+    }
+
+    @Test
+    void getExpenses_sharesSnapshotUntilChanged() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.addExpense("a", 1);
+        expenseManager.addExpense("b", 2);
+        List<Expense> first = expenseManager.getExpenses();
+        assertSame(first, expenseManager.getExpenses());
+        expenseManager.editExpenseAmount("a", 5);
+        assertSame(first, expenseManager.getExpenses());
+
+        expenseManager.addExpense("c", 3);
+        List<Expense> second = expenseManager.getExpenses();
+        assertEquals(2, first.size());
+        assertEquals(3, second.size());
+        assertSame(second.get(2), expenseManager.getExpense(2));
+        assertThrows(UnsupportedOperationException.class, () -> second.remove(0));
+
+        expenseManager.deleteExpense("a");
+        assertEquals(List.of(second.get(1), second.get(2)), expenseManager.getExpenses());
+    }
+
+    @Test
+    void addExpense_builtExpenseKeepsCurrencyAndTime() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance(1000);
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 9, 30);
+        Expense expense = new Expense("hotel", 100, Currency.USD, "stay", time);
+        expenseManager.addExpense(expense);
+
+        assertSame(expense, expenseManager.getExpense(0));
+        assertEquals(Currency.USD, expense.getCurrency());
+        assertEquals(time, expense.getDateTime());
+        assertEquals(1, expenseManager.getCategoryCount("stay"));
+        assertEquals(Money.toAmount(Currency.USD.toBaseCents(10000)), expenseManager.getTotalExpense());
+
+        assertThrows(InvalidArgumentException.class,
+                () -> expenseManager.addExpense(new Expense("HOTEL", 1, Currency.SGD, null, time)));
+        assertThrows(InvalidArgumentException.class,
+                () -> expenseManager.addExpense(new Expense("free", 0, Currency.SGD, null, time)));
+        assertThrows(InvalidArgumentException.class,
+                () -> expenseManager.addExpense(new Expense("huge", 2e6, Currency.SGD, null, time)));
+        assertEquals(1, expenseManager.getExpenses().size());
+    }
+
+    @Test
+    void addExpenses_rejectsLikeAddExpenseInOrder() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+        expenseManager.addExpense("taken", 1);
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 12, 0);
+        List<Expense> batch = List.of(
+                new Expense("lunch", 12, Currency.SGD, "food", time),
+                new Expense("LUNCH", 3, Currency.SGD, null, time),
+                new Expense("Taken", 3, Currency.SGD, null, time),
+                new Expense("", 3, Currency.SGD, null, time),
+                new Expense("snack", 0, Currency.SGD, null, time),
+                new Expense("snack", 2, Currency.USD, "food", time));
+
+        ExpenseManager.Rejection[] errors = expenseManager.addExpenses(batch);
+        assertArrayEquals(new ExpenseManager.Rejection[] {null, ExpenseManager.Rejection.DUPLICATE_NAME,
+            ExpenseManager.Rejection.DUPLICATE_NAME, ExpenseManager.Rejection.EMPTY_NAME,
+            ExpenseManager.Rejection.AMOUNT_TOO_SMALL, null}, errors);
+        assertEquals("\"snack\": Expense amount should be more than 0.",
+                ExpenseManager.Rejection.AMOUNT_TOO_SMALL.getMessage("snack"));
+        assertEquals(List.of("taken", "lunch", "snack"),
+                expenseManager.getExpenses().stream().map(Expense::getName).toList());
+        assertEquals(2, expenseManager.getCategoryCount("food"));
+        assertEquals(1 + 12 + Money.toAmount(Currency.USD.toBaseCents(200)), expenseManager.getTotalExpense(),
+                0.001);
+    }
+
+    @Test
+    void addExpenses_searchIndexRebuiltOnSearch() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 12, 0);
+        List<Expense> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Expense("meal " + i, 1, Currency.SGD, null, time));
+        }
+        expenseManager.addExpenses(batch);
+        expenseManager.deleteExpense("meal 42");
+        expenseManager.addExpense("late meal 42", 1);
+
+        assertEquals(List.of("late meal 42"),
+                expenseManager.getExpensesBySearchword("al 42").stream().map(Expense::getName).toList());
+        assertEquals(11, expenseManager.getExpensesBySearchword("meal 4").size());
+        expenseManager.deleteExpense("meal 41");
+        assertEquals(10, expenseManager.getExpensesBySearchword("meal 4").size());
+    }
+
+    @Test
+    void pagedQueries_matchUnpagedOnes() throws InvalidArgumentException {
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+        expenseManager.createCategory("food");
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 12, 0);
+        for (int i = 0; i < 50; i++) {
+            expenseManager.addExpense(new Expense("meal " + i, 1, Currency.SGD, i % 2 == 0 ? "food" : null,
+                    time.plusMinutes(i / 3)));
+        }
+        List<Expense> all = expenseManager.getExpenses();
+        List<Expense> food = expenseManager.getExpensesByCategory("food");
+        List<Expense> inRange = expenseManager.getExpensesByDateRange(time.plusMinutes(2), time.plusMinutes(12));
+        List<Expense> matches = expenseManager.getExpensesBySearchword("meal 1");
+
+        int[][] pages = {{0, 5}, {3, 4}, {10, 100}, {24, 1}, {60, 5}, {0, Integer.MAX_VALUE}};
+        for (int[] page : pages) {
+            int offset = page[0];
+            int limit = page[1];
+            assertPage(all, offset, limit, expenseManager.getExpenses(offset, limit));
+            assertPage(food, offset, limit, expenseManager.getExpensesByCategory("food", offset, limit));
+            assertPage(inRange, offset, limit,
+                    expenseManager.getExpensesByDateRange(time.plusMinutes(2), time.plusMinutes(12), offset, limit));
+            assertPage(matches, offset, limit, expenseManager.getExpensesBySearchword("meal 1", offset, limit));
+        }
+        assertThrows(InvalidArgumentException.class, () -> expenseManager.getExpensesByCategory("drinks", 0, 1));
+    }
+
+    private static void assertPage(List<Expense> expected, int offset, int limit, ExpensePage page) {
+        int from = Math.min(offset, expected.size());
+        int to = (int) Math.min((long) from + limit, expected.size());
+        assertEquals(expected.subList(from, to), page.expenses());
+        assertEquals(from, page.offset());
+        assertEquals(expected.size(), page.total());
+        assertEquals(expected.stream().mapToLong(Expense::getAmountCents).sum(), page.totalCents());
+    }
 }
@@ -113,4 +113,25 @@ public class InputHandlerTest {
                 () -> inputHandler.handleUserInput("     set-time Lunch -t 2024-04-01 10:00:00")
         );
     }
+
+    @Test
+    public void handleUserInputTest_pagedListing() {
+        inputHandler.handleUserInput("add-expense a -a 1");
+        inputHandler.handleUserInput("add-expense b -a 2");
+        inputHandler.handleUserInput("add-expense c -a 3");
+        String output = inputHandler.handleUserInput("list-expense -l 1 -o 1");
+        assertTrue(output.contains("name: b"));
+        assertFalse(output.contains("name: a"));
+        assertFalse(output.contains("name: c"));
+        assertTrue(output.contains("Use -o 2 to see more."));
+        assertTrue(inputHandler.handleUserInput("search a -l 0").contains("Value should be more than 0."));
+    }
+
+    @Test
+    public void handleUserInputTest_pagingOptionsOnlyForListings() {
+        String output = inputHandler.handleUserInput("set-budget 100 -l x");
+        assertFalse(output.contains("Not an integer."));
+        assertTrue(output.contains("100"));
+        assertTrue(inputHandler.handleUserInput("list-expense -l x").contains("Not an integer."));
+    }
 }
@@ -0,0 +1,107 @@
+package seedu.tripbuddy.framework;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import seedu.tripbuddy.exception.InvalidArgumentException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScriptRunnerTest {
+
+    private static final String SCRIPT = """
+            # a comment
+            create-category food
+
+            add-expense lunch -a 12 -c food
+            add-expense dinner -a abc
+            lol
+            list-expense food
+            quit
+            add-expense never -a 1
+            """;
+
+    private InputHandler inputHandler;
+    private ExpenseManager expenseManager;
+
+    @BeforeEach
+    void setUp() {
+        expenseManager = ExpenseManager.getInstance(1000);
+        expenseManager.clearExpensesAndCategories();
+        inputHandler = new InputHandler(Logger.getLogger("TestLogger"));
+    }
+
+    private String run(boolean isEcho, ByteArrayOutputStream buffer) throws IOException {
+        ScriptRunner runner = new ScriptRunner(inputHandler);
+        PrintStream out = new PrintStream(buffer, false, StandardCharsets.UTF_8);
+        return runner.run(new BufferedReader(new StringReader(SCRIPT)), "test", isEcho, out);
+    }
+
+    @Test
+    void run_echo() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        String summary = run(true, buffer);
+        String output = buffer.toString(StandardCharsets.UTF_8);
+
+        assertEquals(1, expenseManager.getExpenses().size());
+        assertTrue(output.contains("> add-expense lunch -a 12 -c food\n"));
+        assertTrue(output.contains("Line 5: Invalid command argument: \"abc\""));
+        assertTrue(output.contains("Line 6: Invalid command keyword: \"lol\""));
+        assertTrue(output.contains("lunch"));
+        assertFalse(output.contains("never"));
+
+        assertTrue(summary.startsWith("Ran 5 commands from test in "));
+        assertTrue(summary.endsWith("\n2 errors:\n\tInvalidArgumentException: 1\n\tInvalidKeywordException: 1"));
+    }
+
+    @Test
+    void run_quietPrintsOnlyErrors() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        run(false, buffer);
+        String output = buffer.toString(StandardCharsets.UTF_8);
+        assertEquals(2, output.split("\n").length);
+        assertTrue(output.startsWith("Line 5: "));
+    }
+
+    @Test
+    void run_file(@TempDir Path dir) throws IOException, InvalidArgumentException {
+        Path script = dir.resolve("script.txt");
+        Files.writeString(script, "add-expense lunch -a 12\nview-budget\n");
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        String summary = new ScriptRunner(inputHandler).run(script.toString(), false,
+                new PrintStream(buffer, false, StandardCharsets.UTF_8));
+        assertEquals(0, buffer.size());
+        assertTrue(summary.endsWith("\nNo errors."));
+        assertEquals(1, expenseManager.getExpenses().size());
+    }
+
+    @Test
+    void run_missingFile(@TempDir Path dir) {
+        ScriptRunner runner = new ScriptRunner(inputHandler);
+        assertThrows(InvalidArgumentException.class, () -> runner.run(dir.resolve("none.txt").toString(), true,
+                new PrintStream(new ByteArrayOutputStream())));
+    }
+
+    @Test
+    void handleUserInput_nestedScriptRejected(@TempDir Path dir) throws IOException {
+        Path script = dir.resolve("self.txt");
+        Files.writeString(script, "run-script " + script + "\n");
+        String message = inputHandler.handleUserInput("run-script " + script);
+        assertTrue(message.contains("Line 1: Invalid command argument"));
+        assertTrue(message.contains("Scripts cannot run other scripts."));
+        assertTrue(message.contains("1 error:\n\tInvalidArgumentException: 1"));
+    }
+}
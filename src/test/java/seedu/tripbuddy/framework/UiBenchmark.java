@@ -0,0 +1,95 @@
+package seedu.tripbuddy.framework;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Scanner;
+import java.util.logging.Logger;
+
+/**
+ * Compares the time taken to run piped commands through the buffered {@link Ui} against the previous
+ * line-by-line output to an auto-flushing stream, the way {@code System.out} behaves.
+ * Output goes to a temporary file, so every flush is a real write.
+ * Tagged {@code benchmark}, so it is skipped by {@code gradlew test}; run it with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+class UiBenchmark {
+
+    private static final int COMMANDS = 20_000;
+    private static final int ROUNDS = 5;
+    private static final String LINE = "____________________________________________________________";
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] buildInput(int commands) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < commands; i++) {
+            sb.append(i % 2 == 0 ? "view-budget" : "view-currency").append('\n');
+        }
+        return sb.append("quit\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs the input the way {@code Ui} did before buffering: one auto-flushed write per line.
+     */
+    private static long timeLineByLine(InputHandler inputHandler, byte[] input, Path file) throws IOException {
+        long start = System.nanoTime();
+        try (OutputStream fileOut = new FileOutputStream(file.toFile());
+                PrintStream out = new PrintStream(new BufferedOutputStream(fileOut), true)) {
+            Scanner scanner = new Scanner(new ByteArrayInputStream(input));
+            while (scanner.hasNextLine()) {
+                String userInput = scanner.nextLine().strip();
+                if (inputHandler.isQuitCommand(userInput)) {
+                    break;
+                }
+                out.println(LINE);
+                out.println(inputHandler.handleUserInput(userInput));
+                out.println(LINE);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long timeBuffered(InputHandler inputHandler, byte[] input, Path file) throws IOException {
+        long start = System.nanoTime();
+        try (OutputStream out = new FileOutputStream(file.toFile())) {
+            Ui ui = new Ui(new ByteArrayInputStream(input), out);
+            while (true) {
+                String userInput = ui.getUserInput();
+                if (inputHandler.isQuitCommand(userInput)) {
+                    break;
+                }
+                ui.printMessage(stream -> inputHandler.handleUserInput(userInput, stream));
+            }
+            ui.printEndMessage();
+        }
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    void pipedCommands_bufferedComparedWithLineByLine() throws IOException {
+        InputHandler inputHandler = new InputHandler(Logger.getLogger("UiBenchmark"));
+        byte[] input = buildInput(COMMANDS);
+        Path file = tempDir.resolve("ui.txt");
+        long bestOld = Long.MAX_VALUE;
+        long bestNew = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            bestOld = Math.min(bestOld, timeLineByLine(inputHandler, input, file));
+            bestNew = Math.min(bestNew, timeBuffered(inputHandler, input, file));
+        }
+        System.out.printf("commands: %d, best of %d rounds%n", COMMANDS, ROUNDS);
+        System.out.printf("line by line: %8.1f ns/command%n", (double) bestOld / COMMANDS);
+        System.out.printf("buffered Ui:  %8.1f ns/command%n", (double) bestNew / COMMANDS);
+        System.out.printf("speed-up:     %8.1fx%n", (double) bestOld / bestNew);
+    }
+}
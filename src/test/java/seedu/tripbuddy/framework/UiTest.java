@@ -4,11 +4,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.PrintStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class UiTest {
 
@@ -35,12 +37,20 @@ class UiTest {
         System.setIn(originalIn);
     }
 
+    /**
+     * Returns everything the Ui has printed, writing out its buffer first.
+     */
+    private String output() {
+        ui.flush();
+        return outContent.toString();
+    }
+
     @Test
     void testPrintLineSeparator() {
         outContent.reset();
         ui.printLineSeparator();
         String expected = "____________________________________________________________" + System.lineSeparator();
-        assertEquals(expected, outContent.toString());
+        assertEquals(expected, output());
     }
 
     @Test
@@ -50,7 +60,7 @@ class UiTest {
         String expected = "____________________________________________________________" + System.lineSeparator() +
                 "Welcome to TripBuddy! Type `tutorial` for a list of available commands." + System.lineSeparator() +
                 "____________________________________________________________" + System.lineSeparator();
-        assertEquals(expected, outContent.toString());
+        assertEquals(expected, output());
     }
 
     @Test
@@ -60,7 +70,7 @@ class UiTest {
         String expected = "____________________________________________________________" + System.lineSeparator() +
                 "Your TripBuddy session has ended. Bye!" + System.lineSeparator() +
                 "____________________________________________________________" + System.lineSeparator();
-        assertEquals(expected, outContent.toString());
+        assertEquals(expected, output());
     }
 
     @Test
@@ -71,6 +81,42 @@ class UiTest {
         String expected = "____________________________________________________________" + System.lineSeparator() +
                 message + System.lineSeparator() +
                 "____________________________________________________________" + System.lineSeparator();
-        assertEquals(expected, outContent.toString());
+        assertEquals(expected, output());
+    }
+
+    @Test
+    void testPrintStreamedMessage() {
+        outContent.reset();
+        ui.printMessage(out -> {
+            out.print("row 1\nrow 2");
+            return null;
+        });
+        String expected = "____________________________________________________________" + System.lineSeparator() +
+                "row 1\nrow 2" + System.lineSeparator() +
+                "____________________________________________________________" + System.lineSeparator();
+        assertEquals(expected, output());
+    }
+
+    @Test
+    void testOutputBufferedUntilPrompt() {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        Ui bufferedUi = new Ui(new ByteArrayInputStream("list-expense\n".getBytes()), console);
+        bufferedUi.printMessage("Test message");
+        assertEquals(0, console.size());
+        assertEquals("list-expense", bufferedUi.getUserInput());
+        assertTrue(console.toString().contains("Test message"));
+
+        console.reset();
+        bufferedUi.printMessage("Last message");
+        assertEquals("quit", bufferedUi.getUserInput());
+        assertTrue(console.toString().contains("Last message"));
+    }
+
+    @Test
+    void testPrintEndMessageFlushes() {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        Ui bufferedUi = new Ui(new ByteArrayInputStream(new byte[0]), console);
+        bufferedUi.printEndMessage();
+        assertTrue(console.toString().contains("Your TripBuddy session has ended. Bye!"));
     }
 }
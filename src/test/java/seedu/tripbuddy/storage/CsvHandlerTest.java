@@ -0,0 +1,251 @@
+package seedu.tripbuddy.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import seedu.tripbuddy.dataclass.Currency;
+import seedu.tripbuddy.dataclass.Expense;
+import seedu.tripbuddy.dataclass.Money;
+import seedu.tripbuddy.exception.InvalidArgumentException;
+import seedu.tripbuddy.framework.ExpenseManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvHandlerTest {
+
+    private final CsvHandler csvHandler = new CsvHandler();
+    private ExpenseManager expenseManager;
+
+    @BeforeEach
+    void setUp() {
+        expenseManager = ExpenseManager.getInstance();
+        expenseManager.clearExpensesAndCategories();
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseManager.clearExpensesAndCategories();
+    }
+
+    private String importCsv(String csv) throws IOException, InvalidArgumentException {
+        return csvHandler.importCsv(new BufferedReader(new StringReader(csv)), "test.csv", expenseManager);
+    }
+
+    @Test
+    void importCsv_defaultColumns() throws IOException, InvalidArgumentException {
+        String message = importCsv("""
+                lunch,12.5,,food,2025-04-01 12:00:00
+                "dinner, late",20,USD,,2025-04-01 21:30:00
+                taxi,8
+                """);
+        assertEquals("Imported 3 expenses from test.csv.", message);
+
+        List<Expense> expenses = expenseManager.getExpenses();
+        assertEquals("lunch", expenses.get(0).getName());
+        assertEquals("food", expenses.get(0).getCategory());
+        assertEquals(LocalDateTime.of(2025, 4, 1, 12, 0), expenses.get(0).getDateTime());
+        assertEquals("dinner, late", expenses.get(1).getName());
+        assertEquals(Currency.USD, expenses.get(1).getCurrency());
+        assertEquals(2000, expenses.get(1).getOriginalAmountCents());
+        assertNull(expenses.get(1).getCategory());
+        assertEquals(Currency.getBaseCurrency(), expenses.get(2).getCurrency());
+        assertTrue(expenseManager.getCategories().contains("food"));
+    }
+
+    @Test
+    void importCsv_headerReordersColumns() throws IOException, InvalidArgumentException {
+        String message = importCsv("""
+                Timestamp,Amount,Name
+                2025-04-02 08:00:00,3.2,"say ""hi""\"
+                """);
+        assertEquals("Imported 1 expense from test.csv.", message);
+        Expense expense = expenseManager.getExpenses().get(0);
+        assertEquals("say \"hi\"", expense.getName());
+        assertEquals(320, expense.getOriginalAmountCents());
+        assertEquals(LocalDateTime.of(2025, 4, 2, 8, 0), expense.getDateTime());
+    }
+
+    @Test
+    void importCsv_firstRowWithOtherFields_readAsData() throws IOException, InvalidArgumentException {
+        String message = importCsv("""
+                Name,5,,Category
+                lunch,12
+                """);
+        assertEquals("Imported 2 expenses from test.csv.", message);
+        Expense expense = expenseManager.getExpenses().get(0);
+        assertEquals("Name", expense.getName());
+        assertEquals("Category", expense.getCategory());
+    }
+
+    @Test
+    void importCsv_textAfterClosingQuote_rejected() throws IOException, InvalidArgumentException {
+        String message = importCsv("""
+                "lunch"late,12
+                "dinner"  ,20
+                """);
+        assertEquals("Imported 1 expense from test.csv.\n"
+                + "Rejected 1 row:\n\tLine 1: Unexpected text after a closing quote: \"late\".", message);
+        assertEquals("dinner", expenseManager.getExpenses().get(0).getName());
+    }
+
+    @Test
+    void importCsv_reportsRejectedRows() throws IOException, InvalidArgumentException {
+        String message = importCsv("""
+                lunch,12
+                LUNCH,3
+                dinner,abc
+                snack,-1
+                coffee,4,XYZ
+                tea,2,,,yesterday
+                ,5
+                "cake,5
+                """);
+        assertEquals(1, expenseManager.getExpenses().size());
+        assertTrue(message.startsWith("Imported 1 expense from test.csv.\nRejected 7 rows:"));
+        assertTrue(message.contains("\n\tLine 2: \"LUNCH\": Expense name already exists."));
+        assertTrue(message.contains("\n\tLine 3: Invalid amount: \"abc\"."));
+        assertTrue(message.contains("\n\tLine 4: Amount should be more than 0"));
+        assertTrue(message.contains("\n\tLine 5: Unrecognized currency: \"XYZ\"."));
+        assertTrue(message.contains("\n\tLine 6: Invalid timestamp: \"yesterday\"."));
+        assertTrue(message.contains("\n\tLine 7: \"\": Expense name should not be empty."));
+        assertTrue(message.endsWith("\n\tLine 8: Unclosed quote."));
+    }
+
+    @Test
+    void importCsv_limitsReportedRows() throws IOException, InvalidArgumentException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            csv.append("bad").append(i).append(",x\n");
+        }
+        String message = importCsv(csv.toString());
+        assertTrue(message.contains("Rejected 25 rows:"));
+        assertTrue(message.contains("Line 20: "));
+        assertTrue(message.endsWith("\n\t... and 5 more."));
+    }
+
+    @Test
+    void importCsv_quotedLineBreaksAndBatches() throws IOException, InvalidArgumentException {
+        StringBuilder csv = new StringBuilder("\"two\nlines\",1\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append("row ").append(i == 4500 ? 0 : i).append(",1\n");
+        }
+        csv.append("last,2\n");
+        String message = importCsv(csv.toString());
+        assertEquals("Imported 5001 expenses from test.csv.\n"
+                + "Rejected 1 row:\n\tLine 4503: \"row 0\": Expense name already exists.", message);
+
+        List<Expense> expenses = expenseManager.getExpenses();
+        assertEquals("two lines", expenses.get(0).getName());
+        assertEquals("last", expenses.get(expenses.size() - 1).getName());
+        assertEquals(1, expenseManager.getExpensesBySearchword("row 4499").size());
+    }
+
+    @Test
+    void importCsv_headerWithoutAmountThrows() {
+        assertThrows(InvalidArgumentException.class, () -> importCsv("name,category\nlunch,food\n"));
+    }
+
+    @Test
+    void exportCsv_roundTrip(@TempDir Path dir) throws IOException, InvalidArgumentException {
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 12, 0);
+        expenseManager.addExpense(new Expense("lunch", 12.5, Currency.SGD, "food", time));
+        expenseManager.addExpense(new Expense("say \"hi\", twice", 20, Currency.USD, null, time.plusHours(1)));
+        List<Expense> before = expenseManager.getExpenses();
+
+        String path = dir.resolve("out/trip.csv").toString();
+        int count = csvHandler.exportCsv(path, CsvHandler.allColumns(), before, expense -> true);
+        assertEquals(2, count);
+        assertEquals("""
+                name,amount,currency,category,timestamp
+                lunch,12.50,SGD,food,2025-04-01 12:00:00
+                "say ""hi"", twice",20.00,USD,,2025-04-01 13:00:00
+                """, Files.readString(Path.of(path)));
+
+        expenseManager.clearExpensesAndCategories();
+        assertEquals("Imported 2 expenses from " + path + ".", csvHandler.importCsv(path, expenseManager));
+        List<Expense> after = expenseManager.getExpenses();
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.get(i).getName(), after.get(i).getName());
+            assertEquals(before.get(i).getOriginalAmountCents(), after.get(i).getOriginalAmountCents());
+            assertEquals(before.get(i).getCurrency(), after.get(i).getCurrency());
+            assertEquals(before.get(i).getCategory(), after.get(i).getCategory());
+            assertEquals(before.get(i).getDateTime(), after.get(i).getDateTime());
+        }
+    }
+
+    @Test
+    void exportCsv_tsvWithColumnsAndFilter() throws IOException, InvalidArgumentException {
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 12, 0);
+        List<Expense> expenses = List.of(new Expense("a\tb", 1, Currency.SGD, "food", time),
+                new Expense("c", 2, Currency.SGD, null, time));
+        StringWriter writer = new StringWriter();
+        int count = csvHandler.exportCsv(writer, '\t', CsvHandler.parseColumns("amount, name"), expenses,
+                expense -> expense.getCategory() != null);
+        assertEquals(1, count);
+        assertEquals("amount\tname\n1.00\t\"a\tb\"\n", writer.toString());
+    }
+
+    @Test
+    void exportCsv_rowLongerThanBuffer_writtenWhole() throws IOException, InvalidArgumentException {
+        String name = "x".repeat(50_000);
+        Expense expense = new Expense(name, 1, Currency.SGD, null, LocalDateTime.of(2025, 4, 1, 12, 0));
+        StringWriter writer = new StringWriter();
+        csvHandler.exportCsv(writer, ',', CsvHandler.parseColumns("name,amount"), List.of(expense), e -> true);
+        assertEquals("name,amount\n" + name + ",1.00\n", writer.toString());
+    }
+
+    @Test
+    void exportCsv_amountsInBaseCurrencyWithoutCurrencyColumn() throws IOException, InvalidArgumentException {
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 12, 0);
+        Expense expense = new Expense("taxi", 10, Currency.USD, null, time);
+        StringWriter writer = new StringWriter();
+        csvHandler.exportCsv(writer, ',', CsvHandler.parseColumns("name,amount"), List.of(expense), e -> true);
+        StringBuilder expected = new StringBuilder("name,amount\ntaxi,");
+        assertEquals(Money.appendTo(expected, expense.getAmountCents()).append('\n').toString(), writer.toString());
+
+        writer = new StringWriter();
+        csvHandler.exportCsv(writer, ',', CsvHandler.parseColumns("amount,currency"), List.of(expense), e -> true);
+        assertEquals("amount,currency\n10.00,USD\n", writer.toString());
+    }
+
+    @Test
+    void exportCsv_tsvRoundTrip(@TempDir Path dir) throws IOException, InvalidArgumentException {
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 12, 0);
+        expenseManager.addExpense(new Expense("a\tb, c", 1, Currency.SGD, "food", time));
+        expenseManager.addExpense(new Expense("multi\nline \"name\"", 2, Currency.USD, "two\nlines", time));
+        List<Expense> before = expenseManager.getExpenses();
+
+        String path = dir.resolve("trip.tsv").toString();
+        csvHandler.exportCsv(path, CsvHandler.allColumns(), before, expense -> true);
+        expenseManager.clearExpensesAndCategories();
+        assertEquals("Imported 2 expenses from " + path + ".", csvHandler.importCsv(path, expenseManager));
+        List<Expense> after = expenseManager.getExpenses();
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.get(i).getOriginalAmountCents(), after.get(i).getOriginalAmountCents());
+            assertEquals(before.get(i).getCurrency(), after.get(i).getCurrency());
+        }
+        // line breaks survive the export, but are read back as spaces
+        assertEquals("a\tb, c", after.get(0).getName());
+        assertEquals("food", after.get(0).getCategory());
+        assertEquals("multi line \"name\"", after.get(1).getName());
+        assertEquals("two lines", after.get(1).getCategory());
+    }
+
+    @Test
+    void parseColumns_unknownColumnThrows() {
+        assertThrows(InvalidArgumentException.class, () -> CsvHandler.parseColumns("name,price"));
+    }
+}
@@ -4,6 +4,7 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import seedu.tripbuddy.dataclass.Currency;
 import seedu.tripbuddy.dataclass.Expense;
 import seedu.tripbuddy.exception.DataLoadingException;
@@ -12,10 +13,13 @@ import seedu.tripbuddy.framework.ExpenseManager;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -34,6 +38,7 @@ class DataHandlerTest {
         // Clear the ExpenseManager state.
         ExpenseManager expenseManager = ExpenseManager.getInstance();
         expenseManager.clearExpensesAndCategories();
+        expenseManager.setBaseCurrency(Currency.SGD);
     }
 
     @Test
@@ -116,4 +121,160 @@ class DataHandlerTest {
         // Expect no exception thrown due to missing currency, handled gracefully.
         assertDoesNotThrow(() -> dataHandler.loadData(tempFile.getAbsolutePath()));
     }
+
+    @Test
+    void testSaveDataRoundTrip(@TempDir Path dir) throws Exception {
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+        expenseManager.setBudget(2000);
+        expenseManager.createCategory("Food");
+        LocalDateTime time = LocalDateTime.of(2025, 4, 5, 12, 0);
+        expenseManager.addExpense(new Expense("Lunch \"set\"", 12.5, Currency.SGD, "Food", time));
+        expenseManager.addExpense(new Expense("Taxi", 8, Currency.USD, null, time.plusHours(1)));
+        List<Expense> before = expenseManager.getExpenses();
+
+        for (boolean isPretty : new boolean[] {true, false}) {
+            File tempFile = dir.resolve("testSaveDataRoundTrip" + isPretty + ".json").toFile();
+            new DataHandler(testLogger, isPretty).saveData(tempFile.getPath(), expenseManager);
+            String content = Files.readString(tempFile.toPath());
+            assertEquals(isPretty, content.contains("\n"));
+            JSONObject root = new JSONObject(content);
+            assertFalse(root.getJSONArray("expenses").getJSONObject(1).has("category"));
+
+            expenseManager.clearExpensesAndCategories();
+            assertEquals("", dataHandler.loadData(tempFile.getPath()));
+            assertEquals(2000, expenseManager.getBudget(), 0.0001);
+            assertEquals(List.of("Food"), expenseManager.getCategories());
+            List<Expense> after = expenseManager.getExpenses();
+            assertEquals(before.size(), after.size());
+            for (int i = 0; i < before.size(); i++) {
+                assertEquals(before.get(i).getName(), after.get(i).getName());
+                assertEquals(before.get(i).getOriginalAmountCents(), after.get(i).getOriginalAmountCents());
+                assertEquals(before.get(i).getCurrency(), after.get(i).getCurrency());
+                assertEquals(before.get(i).getCategory(), after.get(i).getCategory());
+                assertEquals(before.get(i).getDateTime(), after.get(i).getDateTime());
+            }
+        }
+    }
+
+    @Test
+    void testSaveDataRoundTripNonSgdBase(@TempDir Path dir) throws Exception {
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+        expenseManager.setBaseCurrency(Currency.USD);
+        expenseManager.setBudget(500);
+        File tempFile = dir.resolve("testSaveDataRoundTripNonSgdBase.json").toFile();
+
+        // Saving and loading again must not convert the budget each time
+        for (int i = 0; i < 2; i++) {
+            dataHandler.saveData(tempFile.getPath(), expenseManager);
+            expenseManager.setBaseCurrency(Currency.SGD);
+            expenseManager.setBudget(1000);
+            assertEquals("", dataHandler.loadData(tempFile.getPath()));
+            assertEquals(Currency.USD, expenseManager.getBaseCurrency());
+            assertEquals(500, expenseManager.getBudget(), 0.0001);
+        }
+
+        // A budget saved before the currency is in that currency as well
+        Files.writeString(tempFile.toPath(), "{\"budget\": 500, \"categories\": [], \"expenses\": [], "
+                + "\"currency\": \"USD\"}");
+        expenseManager.setBaseCurrency(Currency.SGD);
+        assertEquals("", dataHandler.loadData(tempFile.getPath()));
+        assertEquals(Currency.USD, expenseManager.getBaseCurrency());
+        assertEquals(500, expenseManager.getBudget(), 0.0001);
+    }
+
+    @Test
+    void testLoadDataFieldsInAnyOrder() throws IOException, DataLoadingException {
+        File tempFile = File.createTempFile("testLoadDataFieldsInAnyOrder", ".json");
+        tempFile.deleteOnExit();
+        Files.writeString(tempFile.toPath(), """
+                {"expenses": [
+                    {"name": "Lunch", "amount": 12.5, "currency": "SGD", "category": "Food",
+                        "dateTime": "2025-04-05 12:00:00"},
+                    7,
+                    {"name": "lunch", "amount": 1, "dateTime": "2025-04-05 13:00:00"}
+                ],
+                "categories": ["Food", "Transport", "Transport"],
+                "currency": "SGD"}
+                """);
+        String message = dataHandler.loadData(tempFile.getPath());
+
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+        assertEquals(1, expenseManager.getExpenses().size());
+        assertEquals(List.of("Food", "Transport"), expenseManager.getCategories());
+        assertEquals("Budget information missing. Using default budget instead.\n"
+                + "Category \"Transport\": Category name already exists.\n"
+                + "Failed to parse expense at index 1. Skipping:\n\tJSONArray[1] is not a JSONObject.\n"
+                + "Failed to parse expense at index 2. Skipping:\n\tExpense name already exists.\n", message);
+    }
+
+    @Test
+    void testLoadDataCurrencyLastAppliesToEarlierFields() throws IOException, DataLoadingException {
+        File tempFile = File.createTempFile("testLoadDataCurrencyLast", ".json");
+        tempFile.deleteOnExit();
+        Files.writeString(tempFile.toPath(), """
+                {"budget": 500,
+                "expenses": [
+                    {"name": "Lunch", "amount": 10, "dateTime": "2025-04-05 12:00:00"},
+                    {"name": "Taxi", "amount": 20, "currency": "SGD", "dateTime": "2025-04-05 13:00:00"}
+                ],
+                "categories": [],
+                "currency": "USD"}
+                """);
+        assertEquals("", dataHandler.loadData(tempFile.getPath()));
+
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+        assertEquals(Currency.USD, expenseManager.getBaseCurrency());
+        assertEquals(500, expenseManager.getBudget(), 0.0001);
+        List<Expense> expenses = expenseManager.getExpenses();
+        assertEquals(List.of("Lunch", "Taxi"), expenses.stream().map(Expense::getName).toList());
+        assertEquals(Currency.USD, expenses.get(0).getCurrency());
+        assertEquals(10, expenses.get(0).getAmount(), 0.0001);
+        assertEquals(Currency.SGD, expenses.get(1).getCurrency());
+        assertEquals(2000, expenses.get(1).getOriginalAmountCents());
+    }
+
+    @Test
+    void testLoadDataSyntaxErrorLoadsNothing() throws IOException {
+        File tempFile = File.createTempFile("testLoadDataSyntaxErrorLoadsNothing", ".json");
+        tempFile.deleteOnExit();
+        Files.writeString(tempFile.toPath(), "{\"expenses\": [{\"name\": \"Lunch\", \"amount\": 12.5, "
+                + "\"dateTime\": \"2025-04-05 12:00:00\"}, {\"name\": ");
+        assertThrows(DataLoadingException.class, () -> dataHandler.loadData(tempFile.getPath()));
+        assertTrue(ExpenseManager.getInstance().getExpenses().isEmpty());
+    }
+
+    @Test
+    void testLoadDataManyExpensesKeepsOrderAndIndexes() throws IOException, DataLoadingException {
+        JSONArray expensesArr = new JSONArray();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            JSONObject expObj = new JSONObject();
+            expObj.put("name", "expense " + (i % 3_001 == 3_000 ? 0 : i));
+            expObj.put("amount", i % 997 == 996 ? "abc" : 1);
+            expObj.put("dateTime", "2025-04-05 12:00:00");
+            expensesArr.put(expObj);
+            if (i % 997 == 996) {
+                expected.append("Failed to parse expense at index ").append(i)
+                        .append(". Skipping:\n\tJSONObject[\"amount\"] is not a double")
+                        .append(" (class java.lang.String : abc).\n");
+            } else if (i % 3_001 == 3_000) {
+                expected.append("Failed to parse expense at index ").append(i)
+                        .append(". Skipping:\n\tExpense name already exists.\n");
+            }
+        }
+        JSONObject root = new JSONObject();
+        root.put("budget", 1500.0);
+        root.put("currency", "SGD");
+        root.put("categories", new JSONArray());
+        root.put("expenses", expensesArr);
+        File tempFile = File.createTempFile("testLoadDataManyExpenses", ".json");
+        tempFile.deleteOnExit();
+        Files.writeString(tempFile.toPath(), root.toString());
+
+        assertEquals(expected.toString(), dataHandler.loadData(tempFile.getPath()));
+        List<Expense> expenses = ExpenseManager.getInstance().getExpenses();
+        assertEquals(10_000 - 10 - 3, expenses.size());
+        assertEquals("expense 0", expenses.get(0).getName());
+        assertEquals("expense 9999", expenses.get(expenses.size() - 1).getName());
+    }
 }
@@ -3,8 +3,15 @@ package seedu.tripbuddy.storage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
@@ -13,6 +20,7 @@ import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class FileHandlerTest {
 
@@ -28,26 +36,27 @@ public class FileHandlerTest {
     }
 
     @Test
-    public void testWriteAndReadJsonObject() throws IOException {
+    public void testWriteAndReadJson() throws IOException {
         FileHandler fileHandler = getTestFileHandler();
         // Create a temporary file path.
         Path filePath = tempDir.resolve("test.json");
         String path = filePath.toString();
 
-        // Create a sample JSONObject.
-        JSONObject jsonToWrite = new JSONObject();
-        jsonToWrite.put("name", "Test");
-        jsonToWrite.put("value", 123);
-
-        // Write the JSONObject to file.
-        String absolutePath = fileHandler.writeJsonObject(path, jsonToWrite);
+        // Write a sample document to file.
+        String absolutePath = fileHandler.writeJson(path, true, writer -> writer.beginObject()
+                .name("name").value("Test")
+                .name("value").value(123)
+                .endObject());
 
         // Verify that the file exists.
         File file = new File(absolutePath);
         assertTrue(file.exists(), "File should exist after writing.");
 
-        // Read the JSONObject from the file.
-        JSONObject jsonRead = fileHandler.readJsonObject(path);
+        // Read the document from the file.
+        JSONObject jsonRead;
+        try (JsonReader reader = fileHandler.openJsonReader(path)) {
+            jsonRead = (JSONObject) reader.nextValue();
+        }
 
         // Verify that the read JSON contains the expected values.
         assertEquals("Test", jsonRead.getString("name"), "The name should match.");
@@ -61,7 +70,7 @@ public class FileHandlerTest {
         String nonExistentPath = tempDir.resolve("nonexistent.json").toString();
 
         // Expect FileNotFoundException when trying to read a file that doesn't exist.
-        assertThrows(FileNotFoundException.class, () -> fileHandler.readJsonObject(nonExistentPath));
+        assertThrows(FileNotFoundException.class, () -> fileHandler.openJsonReader(nonExistentPath));
     }
 
     @Test
@@ -72,15 +81,76 @@ public class FileHandlerTest {
         Path filePath = nestedDir.resolve("test.json");
         String path = filePath.toString();
 
-        // Create a sample JSONObject.
-        JSONObject jsonToWrite = new JSONObject();
-        jsonToWrite.put("key", "value");
-
-        // Write the JSONObject to file.
-        String absolutePath = fileHandler.writeJsonObject(path, jsonToWrite);
+        // Write a sample document to file.
+        String absolutePath = fileHandler.writeJson(path, true,
+                writer -> writer.beginObject().name("key").value("value").endObject());
 
         // Verify that the file now exists (and thus that the parent directories were created).
         File file = new File(absolutePath);
         assertTrue(file.exists(), "File should exist and directories should be created.");
     }
+
+    /**
+     * Lists the names of the files in the temporary folder, sorted.
+     */
+    private List<String> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    public void testWriteAtomicallyKeepsGenerations() throws IOException {
+        FileHandler fileHandler = new FileHandler(Logger.getLogger("TestFileHandler"), 2, true);
+        String path = tempDir.resolve("data.json").toString();
+        for (int i = 1; i <= 5; i++) {
+            String text = "version " + i;
+            fileHandler.writeAtomically(path, writer -> writer.write(text));
+        }
+
+        assertEquals(List.of("data.json", "data.json.1", "data.json.2"), listFiles());
+        assertEquals("version 5", Files.readString(Path.of(path)));
+        assertEquals("version 4", Files.readString(FileHandler.getGenerationPath(Path.of(path), 1)));
+        assertEquals("version 3", Files.readString(FileHandler.getGenerationPath(Path.of(path), 2)));
+    }
+
+    @Test
+    public void testWriteAtomicallyFailureLeavesFileUntouched() throws IOException {
+        FileHandler fileHandler = new FileHandler(Logger.getLogger("TestFileHandler"), 1, false);
+        String path = tempDir.resolve("data.json").toString();
+        fileHandler.writeAtomically(path, writer -> writer.write("old"));
+
+        fileHandler.writeAtomically(path, writer -> writer.write("current"));
+
+        assertThrows(IOException.class, () -> fileHandler.writeAtomically(path, writer -> {
+            writer.write("half of the new");
+            throw new IOException("disk full");
+        }));
+        assertEquals(List.of("data.json", "data.json.1"), listFiles());
+        assertEquals("current", Files.readString(Path.of(path)));
+        assertEquals("old", Files.readString(FileHandler.getGenerationPath(Path.of(path), 1)));
+    }
+
+    @Test
+    public void testWriteAtomicallyKeepsPermissions() throws IOException {
+        Path file = tempDir.resolve("data.json");
+        Files.writeString(file, "old");
+        assumeTrue(Files.getFileStore(file).supportsFileAttributeView(PosixFileAttributeView.class));
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(file, permissions);
+
+        getTestFileHandler().writeAtomically(file.toString(), writer -> writer.write("new"));
+        assertEquals(permissions, Files.getPosixFilePermissions(file));
+        assertEquals(permissions, Files.getPosixFilePermissions(FileHandler.getGenerationPath(file, 1)));
+    }
+
+    @Test
+    public void testWriteAtomicallyWithoutGenerations() throws IOException {
+        FileHandler fileHandler = new FileHandler(Logger.getLogger("TestFileHandler"), 0, false);
+        String path = tempDir.resolve("data.json").toString();
+        fileHandler.writeAtomically(path, writer -> writer.write("old"));
+        fileHandler.writeAtomically(path, writer -> writer.write("new"));
+        assertEquals(List.of("data.json"), listFiles());
+        assertEquals("new", Files.readString(Path.of(path)));
+    }
 }
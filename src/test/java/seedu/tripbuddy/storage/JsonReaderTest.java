@@ -0,0 +1,71 @@
+package seedu.tripbuddy.storage;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonReaderTest {
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(new StringReader(json));
+    }
+
+    @Test
+    void tokens() throws IOException {
+        JsonReader reader = reader(" {\"a\": [1, \"x\", true, null], \"b\": {}}\n");
+        assertEquals(JsonReader.Token.BEGIN_OBJECT, reader.peek());
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        reader.beginArray();
+        assertEquals(JsonReader.Token.NUMBER, reader.peek());
+        assertEquals(1, reader.nextValue());
+        assertEquals("x", reader.nextValue());
+        assertEquals(Boolean.TRUE, reader.nextValue());
+        assertEquals(JSONObject.NULL, reader.nextValue());
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("b", reader.nextName());
+        reader.skipValue();
+        reader.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void nextValue_matchesJsonObject() throws IOException {
+        String json = "{\"name\":\"say \\\"hi\\\"\\n\\u00e9\\/\",\"amount\":12.50,\"n\":-3e2,"
+                + "\"list\":[{\"x\":[]},false],\"none\":null}";
+        JSONObject expected = new JSONObject(json);
+        JSONObject actual = (JSONObject) reader(json).nextValue();
+        assertTrue(expected.similar(actual));
+        assertEquals("say \"hi\"\n\u00e9/", actual.getString("name"));
+    }
+
+    @Test
+    void nextValue_acrossBufferBoundaries() throws IOException {
+        String longName = "n\\\"".repeat(40_000);
+        String json = "[" + "1234567,".repeat(20_000) + "\"" + longName + "\"]";
+        JSONArray array = (JSONArray) reader(json).nextValue();
+        assertEquals(20_001, array.length());
+        assertEquals(1234567, array.getInt(19_999));
+        assertEquals("n\"".repeat(40_000), array.getString(20_000));
+    }
+
+    @Test
+    void syntaxError_reportsPosition() {
+        JSONException e = assertThrows(JSONException.class,
+                () -> reader("{\n  \"a\": 1\n  \"b\": 2}").nextValue());
+        assertEquals("Expected ',' or '}' at line 3 column 3", e.getMessage());
+        assertThrows(JSONException.class, () -> reader("[1, nope]").nextValue());
+        assertThrows(JSONException.class, () -> reader("{\"a\": \"open").nextValue());
+        assertThrows(JSONException.class, () -> reader("[1,").nextValue());
+    }
+}
@@ -0,0 +1,71 @@
+package seedu.tripbuddy.storage;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonWriterTest {
+
+    private static String write(boolean isPretty) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out, isPretty)) {
+            writer.beginObject();
+            writer.name("budget").value(1500.0);
+            writer.name("empty").beginArray().endArray();
+            writer.name("items").beginArray();
+            writer.beginObject();
+            writer.name("amount").valueCents(1205);
+            writer.name("note").value(null);
+            writer.endObject();
+            writer.value("x");
+            writer.endArray();
+            writer.endObject();
+        }
+        return out.toString();
+    }
+
+    @Test
+    void compact() throws IOException {
+        assertEquals("{\"budget\":1500,\"empty\":[],\"items\":[{\"amount\":12.05,\"note\":null},\"x\"]}",
+                write(false));
+    }
+
+    @Test
+    void pretty_matchesJsonObjectLayout() throws IOException {
+        assertEquals("""
+                {
+                    "budget": 1500,
+                    "empty": [],
+                    "items": [
+                        {
+                            "amount": 12.05,
+                            "note": null
+                        },
+                        "x"
+                    ]
+                }""", write(true));
+    }
+
+    @Test
+    void value_escapesStrings() throws IOException {
+        String text = "say \"hi\"\\\n\r\t\b\u0001 ok";
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out, false)) {
+            writer.beginArray().value(text).endArray();
+        }
+        assertEquals("[\"say \\\"hi\\\"\\\\\\n\\r\\t\\u0008\\u0001 ok\"]", out.toString());
+        assertEquals(text, new JSONArray(out.toString()).getString(0));
+    }
+
+    @Test
+    void pretty_parsesBack() throws IOException {
+        JSONObject root = new JSONObject(write(true));
+        assertEquals(12.05, root.getJSONArray("items").getJSONObject(0).getDouble("amount"), 1e-9);
+        assertEquals("x", root.getJSONArray("items").getString(1));
+    }
+}
@@ -0,0 +1,88 @@
+package seedu.tripbuddy.storage;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import seedu.tripbuddy.dataclass.Currency;
+import seedu.tripbuddy.dataclass.Expense;
+import seedu.tripbuddy.framework.ExpenseManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the time taken by {@link DataHandler#saveData}, which replaces the save file through
+ * {@link FileHandler#writeAtomically}, with and without forcing the file and its folder to disk ({@code isSync}),
+ * and with no generations or the default number of them.
+ * Saves go to a temporary folder under the working directory rather than the system temporary folder, which is
+ * often in memory and would make forcing to disk free.
+ * Tagged {@code benchmark}, so it is skipped by {@code gradlew test}; run it with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+class SaveBenchmark {
+
+    private static final int EXPENSES = 100_000;
+    private static final int ROUNDS = 5;
+
+    private static long timeSaves(DataHandler dataHandler, Path file, ExpenseManager expenseManager)
+            throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            dataHandler.saveData(file.toString(), expenseManager);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    void saveData_syncAndGenerations() throws IOException {
+        Logger logger = Logger.getLogger("SaveBenchmark");
+        logger.setLevel(Level.WARNING);
+        ExpenseManager expenseManager = ExpenseManager.getInstance();
+        expenseManager.clearExpensesAndCategories();
+        LocalDateTime time = LocalDateTime.of(2025, 4, 1, 12, 0);
+        List<Expense> expenses = new ArrayList<>(EXPENSES);
+        for (int i = 0; i < EXPENSES; i++) {
+            expenses.add(new Expense("expense " + i, 1 + i % 500, Currency.SGD, "category " + i % 20,
+                    time.plusMinutes(i)));
+        }
+        expenseManager.addExpenses(expenses);
+
+        Path dir = Files.createTempDirectory(Path.of("").toAbsolutePath(), "tripbuddy-save");
+        Path file = dir.resolve("tripbuddy_data.json");
+        try {
+            System.out.printf("expenses: %d, best of %d rounds%n", EXPENSES, ROUNDS);
+            for (int generations : new int[] {0, FileHandler.DEFAULT_GENERATIONS}) {
+                for (boolean isSync : new boolean[] {false, true}) {
+                    DataHandler dataHandler = new DataHandler(logger, true,
+                            new FileHandler(logger, generations, isSync));
+                    long best = timeSaves(dataHandler, file, expenseManager);
+                    System.out.printf("generations: %d, isSync: %-5b %8.1f ms%n", generations, isSync, best / 1e6);
+                }
+            }
+            System.out.printf("file: %.1f MB%n", Files.size(file) / 1e6);
+            assertTrue(Files.exists(FileHandler.getGenerationPath(file, FileHandler.DEFAULT_GENERATIONS)));
+        } finally {
+            deleteAll(dir);
+            expenseManager.clearExpensesAndCategories();
+        }
+    }
+}